@@ -0,0 +1,40 @@
+package benchmarks;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.InvalidMoveException;
+
+/**
+ * Positions and move sequences shared by the benchmarks.
+ */
+final class BenchmarkPositions {
+
+  // 1. e4 e5 2. Nf3 Nc6 3. Bc4 Nf6 4. d3 Bc5 (Italian game, white to move)
+  static final String[] OPENING_LINE = {"e2e4", "e7e5", "g1f3", "b8c6", "f1c4", "g8f6", "d2d3", "f8c5"};
+
+  // Knight shuffle that returns to the position it started from, so it can be replayed forever
+  static final ChessMove[] KNIGHT_CYCLE = {
+          new ChessMove("b1a3"), new ChessMove("c6b8"), new ChessMove("a3b1"), new ChessMove("b8c6")
+  };
+
+
+  /**
+   * @return  a new game with OPENING_LINE played
+   */
+  static ChessGame middlegame() {
+    ChessGame game = new ChessGame();
+    try {
+      for (String move : OPENING_LINE) {
+        game.makeMove(new ChessMove(move));
+      }
+    }
+    catch (InvalidMoveException e) {
+      throw new IllegalStateException("Benchmark opening line is not legal", e);
+    }
+    return game;
+  }
+
+
+  // Private constructor to avoid compiler's implicit one
+  private BenchmarkPositions() { throw new AssertionError("BenchmarkPositions class should not be instantiated"); }
+}
@@ -0,0 +1,86 @@
+package benchmarks;
+
+import chess.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Move generation, move application and search in the chess package.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ChessBenchmark {
+
+  private ChessGame startGame;
+  private ChessGame middlegame;
+  private ChessPosition queenPosition;
+  private ChessEngine engine;
+
+  @Setup
+  public void setUp() {
+    startGame = new ChessGame();
+    middlegame = BenchmarkPositions.middlegame();
+    queenPosition = new ChessPosition(1, 4);
+    engine = new ChessEngine();
+  }
+
+
+  @Benchmark
+  public Collection<ChessMove> getValidMovesQueen() {
+    return ChessRuleBook.getValidMoves(middlegame.getBoard(), queenPosition);
+  }
+
+
+  @Benchmark
+  public int getValidMovesAllPiecesStart() {
+    return countAllValidMoves(startGame);
+  }
+
+
+  @Benchmark
+  public int getValidMovesAllPiecesMiddlegame() {
+    return countAllValidMoves(middlegame);
+  }
+
+
+  /**
+   * Four ChessGame.makeMove calls that bring the game back to where it started.
+   */
+  @Benchmark
+  public ChessGame makeMoveCycle() throws InvalidMoveException {
+    for (ChessMove move : BenchmarkPositions.KNIGHT_CYCLE) {
+      middlegame.makeMove(move);
+    }
+    return middlegame;
+  }
+
+
+  /**
+   * Fixed-depth search with a cold transposition table, so each call does the same work.
+   */
+  @Benchmark
+  public ChessMove searchMiddlegameDepth4() {
+    engine.clear();
+    return engine.findBestMove(middlegame, 4, ChessEngine.NO_TIME_LIMIT);
+  }
+
+
+  /**
+   * Generates every legal move of the side to move straight from ChessRuleBook,
+   * bypassing the shared ValidMoveCache.
+   */
+  private static int countAllValidMoves(ChessGame game) {
+    int count = 0;
+    ChessBoard board = game.getBoard();
+    for (ChessPosition position : board.iterateForFriendlyPieces(game.getTeamTurn())) {
+      count += ChessRuleBook.getValidMoves(board, position).size();
+    }
+    return count;
+  }
+}
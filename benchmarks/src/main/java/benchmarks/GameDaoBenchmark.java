@@ -0,0 +1,52 @@
+package benchmarks;
+
+import chess.ChessMove;
+import chess.InvalidMoveException;
+import dataAccess.DataAccessException;
+import dataAccess.dataAccessObject.GameDao;
+import dataAccess.memoryAccess.memoryAccessObjects.GameMao;
+import model.GameData;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * get + makeMove through the in-memory game data access object.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GameDaoBenchmark {
+
+  private GameDao gameDao;
+  private int gameID;
+
+  @Setup
+  public void setUp() throws DataAccessException {
+    gameDao = new GameMao();
+    gameID = gameDao.create(new GameData(null, null, null, "benchmark", BenchmarkPositions.middlegame(), true));
+  }
+
+
+  @Benchmark
+  public GameData get() throws DataAccessException {
+    return gameDao.get(gameID);
+  }
+
+
+  /**
+   * Four get + makeMove round trips that bring the stored game back to where it started.
+   */
+  @Benchmark
+  public GameData getAndMakeMoveCycle() throws DataAccessException, InvalidMoveException {
+    GameData gameData = null;
+    for (ChessMove move : BenchmarkPositions.KNIGHT_CYCLE) {
+      gameData = gameDao.get(gameID);
+      gameDao.makeMove(gameID, move);
+    }
+    return gameData;
+  }
+}
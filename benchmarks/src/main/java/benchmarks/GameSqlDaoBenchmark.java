@@ -0,0 +1,62 @@
+package benchmarks;
+
+import chess.ChessMove;
+import chess.InvalidMoveException;
+import dataAccess.DataAccessException;
+import dataAccess.sqlAccess.sqlAccessObjects.GameSqlDao;
+import model.GameData;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * get + makeMove through the SQL game data access object.
+ * <p>
+ * Runs against the local MySQL database configured in the server's db.properties (the same one the
+ * server and the dataAccessTests use). It only touches the single game it creates, which is deleted
+ * again on tear down. Exclude it with a JMH pattern (e.g. "^(?!.*GameSqlDao)") when no database is running.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GameSqlDaoBenchmark {
+
+  private GameSqlDao gameDao;
+  private int gameID;
+
+  @Setup
+  public void setUp() throws DataAccessException {
+    gameDao = new GameSqlDao();
+    gameID = gameDao.create(new GameData(null, null, null, "benchmark-" + System.nanoTime(), BenchmarkPositions.middlegame(), true));
+  }
+
+
+  @TearDown
+  public void tearDown() throws DataAccessException {
+    gameDao.delete(gameID);
+  }
+
+
+  @Benchmark
+  public GameData get() throws DataAccessException {
+    return gameDao.get(gameID);
+  }
+
+
+  /**
+   * Four get + makeMove round trips that bring the stored game back to where it started, the same
+   * middlegame GameDaoBenchmark stores.
+   */
+  @Benchmark
+  public GameData getAndMakeMoveCycle() throws DataAccessException, InvalidMoveException {
+    GameData gameData = null;
+    for (ChessMove move : BenchmarkPositions.KNIGHT_CYCLE) {
+      gameData = gameDao.get(gameID);
+      gameDao.makeMove(gameID, move);
+    }
+    return gameData;
+  }
+}
@@ -0,0 +1,59 @@
+package benchmarks;
+
+import chess.ChessGame;
+import com.google.gson.Gson;
+import org.openjdk.jmh.annotations.*;
+import request.webSocketMessages.serverMessages.LoadGame;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Gson round-trips of the game state as stored in the database and sent in LOAD_GAME messages.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SerializationBenchmark {
+
+  private final Gson gson = new Gson();
+
+  private ChessGame game;
+  private LoadGame loadGame;
+  private String gameJson;
+  private String loadGameJson;
+
+  @Setup
+  public void setUp() {
+    game = BenchmarkPositions.middlegame();
+    loadGame = new LoadGame(game);
+    gameJson = gson.toJson(game);
+    loadGameJson = gson.toJson(loadGame);
+  }
+
+
+  @Benchmark
+  public String serializeChessGame() {
+    return gson.toJson(game);
+  }
+
+
+  @Benchmark
+  public ChessGame deserializeChessGame() {
+    return gson.fromJson(gameJson, ChessGame.class);
+  }
+
+
+  @Benchmark
+  public LoadGame roundTripLoadGame() {
+    return gson.fromJson(gson.toJson(loadGame), LoadGame.class);
+  }
+
+
+  @Benchmark
+  public LoadGame deserializeLoadGame() {
+    return gson.fromJson(loadGameJson, LoadGame.class);
+  }
+}
@@ -0,0 +1,66 @@
+package dataAccess;
+
+import chess.ChessGame;
+import chess.PgnGame;
+import chess.PgnImporter;
+import dataAccess.dataAccessObject.GameDao;
+import model.GameData;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Stores games imported by a PgnImporter in a game DAO, each under a name built from its
+ * player tags. Archived players aren't users of this server, so the player columns stay empty.
+ * <p>
+ * Replay runs in parallel on the importer's workers, but the DAOs share a single database
+ * connection, so insertions are serialized here.
+ */
+public class PgnGameLoader implements PgnImporter.Sink {
+
+  private static final String UNKNOWN_PLAYER = "?";
+  private static final String NO_RESULT = "*";
+
+  private final GameDao gameDao;
+  private final AtomicLong gameNumber = new AtomicLong();
+
+
+  /**
+   * @param gameDao DAO to create the imported games in
+   */
+  public PgnGameLoader(GameDao gameDao) {
+    this.gameDao = gameDao;
+  }
+
+
+  /**
+   * Creates a game holding the final position of 'game'. Games without a result are stored as
+   * still active.
+   *
+   * @param pgnGame the game as read
+   * @param game    the replayed game
+   * @throws IllegalStateException if the DAO rejects the game
+   */
+  @Override
+  public void accept(PgnGame pgnGame, ChessGame game) {
+    GameData gameData = new GameData(null, null, null, gameName(pgnGame), game, NO_RESULT.equals(pgnGame.result()));
+    synchronized (gameDao) {
+      try {
+        gameDao.create(gameData);
+      }
+      catch (DataAccessException e) {
+        throw new IllegalStateException("Imported game couldn't be stored: " + e.getMessage(), e);
+      }
+    }
+  }
+
+
+  /**
+   * @return  "White vs Black #n", numbered so that rematches get distinct names
+   */
+  private String gameName(PgnGame pgnGame) {
+    return String.format("%s vs %s #%d",
+            pgnGame.tags().getOrDefault("White", UNKNOWN_PLAYER),
+            pgnGame.tags().getOrDefault("Black", UNKNOWN_PLAYER),
+            gameNumber.incrementAndGet());
+  }
+}
@@ -171,6 +171,6 @@ public class GameMao extends MemoryAccessObject<Integer, GameData> implements Ga
 
   @Override
   public void makeMove(int gameID, ChessMove move) throws InvalidMoveException, DataAccessException {
-    //TODO implement
+    get(gameID).getGame().makeMove(move);
   }
 }
@@ -35,7 +35,7 @@ public class GameSqlDao extends SqlAccessObject<Integer, GameData> implements Ga
       return executeUpdate("INSERT INTO " + GAME_TABLE +
                     " (whiteUsername, blackUsername, gameName, game, gameActive) VALUES(?, ?, ?, ?, ?)",
                     data.getWhiteUsername(), data.getBlackUsername(), data.getGameName(),
-                    new ChessGame(), gameActiveValue);
+                    data.getGame(), gameActiveValue);
     }
     catch (SQLException e) {
       throw new DataAccessException("Game data couldn't be inserted: " + e.getMessage());
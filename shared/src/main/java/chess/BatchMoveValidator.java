@@ -0,0 +1,178 @@
+package chess;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Validates many moves at once on a ForkJoinPool, for bulk work such as importing games or
+ * re-validating archived ones after a rule change. The batch is split into index ranges that
+ * idle workers steal, so it scales with the number of cores.
+ * <p>
+ * Given games are only read: each leaf task validates on its own copy of the board, so the
+ * same game may appear many times in a batch. The games must not be modified while a call runs.
+ */
+public final class BatchMoveValidator {
+
+  // Leaf sizes: a single move check takes about a microsecond, a game replay far longer
+  private static final int MOVES_PER_TASK = 256;
+  private static final int GAMES_PER_TASK = 4;
+
+  /** Returned by replay for a game whose every move is legal. */
+  public static final int ALL_MOVES_LEGAL = -1;
+
+
+  /**
+   * Validates pairs of (position, move) on the common pool.
+   *
+   * @see #validate(List, List, ForkJoinPool)
+   */
+  public static boolean[] validate(List<ChessGame> positions, List<ChessMove> moves) {
+    return validate(positions, moves, ForkJoinPool.commonPool());
+  }
+
+
+  /**
+   * Validates pairs of (position, move): result i tells if moves[i] is legal for the side to
+   * move in positions[i], exactly as ChessGame.makeMove would accept it.
+   *
+   * @param positions games to validate in (read only)
+   * @param moves     move to validate for each game
+   * @param pool      pool to run on
+   * @return          legality of each pair, in order
+   * @throws IllegalArgumentException if the lists differ in length
+   */
+  public static boolean[] validate(List<ChessGame> positions, List<ChessMove> moves, ForkJoinPool pool) {
+    if (positions.size() != moves.size()) {
+      throw new IllegalArgumentException("Got " + positions.size() + " positions for " + moves.size() + " moves");
+    }
+
+    boolean[] results = new boolean[moves.size()];
+    pool.invoke(new RangeTask(0, results.length, MOVES_PER_TASK, () -> new IntConsumer() {
+      // Consecutive pairs on the same game (e.g. every candidate of one position) share a copy
+      private ChessGame lastGame;
+      private ChessBoard board;
+      private final MoveList scratch = new MoveList();
+
+      @Override
+      public void accept(int i) {
+        ChessGame game = positions.get(i);
+        if (game != lastGame) {
+          lastGame = game;
+          board = copyBoard(game);
+        }
+        results[i] = isLegalFor(board, game.getTeamTurn(), moves.get(i), scratch);
+      }
+    }));
+    return results;
+  }
+
+
+  /**
+   * Replays games on the common pool.
+   *
+   * @see #replay(List, ForkJoinPool)
+   */
+  public static int[] replay(List<ChessGame> games) {
+    return replay(games, ForkJoinPool.commonPool());
+  }
+
+
+  /**
+   * Replays the move history of every game from its start position under the current rules.
+   *
+   * @param games games to replay (read only)
+   * @param pool  pool to run on
+   * @return      for each game, the ply of its first illegal move, or ALL_MOVES_LEGAL
+   */
+  public static int[] replay(List<ChessGame> games, ForkJoinPool pool) {
+    int[] results = new int[games.size()];
+    pool.invoke(new RangeTask(0, results.length, GAMES_PER_TASK, () -> i -> results[i] = firstIllegalPly(games.get(i))));
+    return results;
+  }
+
+
+  /**
+   * @return  ply of the first move of 'game' that is illegal when replayed, or ALL_MOVES_LEGAL
+   */
+  private static int firstIllegalPly(ChessGame game) {
+    List<ChessMove> moves = game.getMoveHistory();
+    ChessGame replayedGame = ChessGame.fromFen(game.getStartFen());
+    MoveList scratch = new MoveList();
+    for (int ply = 0; ply < moves.size(); ply++) {
+      ChessMove move = moves.get(ply);
+      if (!isLegalFor(replayedGame.getBoard(), replayedGame.getTeamTurn(), move, scratch)) {
+        return ply;
+      }
+      replayedGame.applyMove(move);
+    }
+    return ALL_MOVES_LEGAL;
+  }
+
+
+  /**
+   * @return  if 'move' is a legal move of 'turn' on 'board' (which is briefly mutated), generating
+   *          into 'scratch'
+   */
+  private static boolean isLegalFor(ChessBoard board, ChessGame.TeamColor turn, ChessMove move, MoveList scratch) {
+    if (move == null) {
+      return false;
+    }
+    ChessPiece piece = board.getPiece(move.getStartPosition());
+    return piece != null && piece.getTeamColor() == turn && ChessRuleBook.isLegalMove(board, move, scratch);
+  }
+
+
+  private static ChessBoard copyBoard(ChessGame game) {
+    try {
+      return game.getBoard().clone();
+    }
+    catch (CloneNotSupportedException e) {
+      throw new IllegalStateException("Board could not be cloned", e);
+    }
+  }
+
+
+  /**
+   * Runs 'body' for every index in [from, to), halving the range until it is at most
+   * 'threshold' long. Every leaf asks the factory for its own body, so bodies with state
+   * (like the board copy above) are never shared between threads.
+   */
+  private static final class RangeTask extends RecursiveAction {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int from;
+    private final int to;
+    private final int threshold;
+    private final transient Supplier<IntConsumer> bodyFactory;
+
+
+    RangeTask(int from, int to, int threshold, Supplier<IntConsumer> bodyFactory) {
+      this.from = from;
+      this.to = to;
+      this.threshold = threshold;
+      this.bodyFactory = bodyFactory;
+    }
+
+
+    @Override
+    protected void compute() {
+      if (to - from <= threshold) {
+        IntConsumer body = bodyFactory.get();
+        for (int i = from; i < to; i++) {
+          body.accept(i);
+        }
+        return;
+      }
+      int middle = (from + to) >>> 1;
+      invokeAll(new RangeTask(from, middle, threshold, bodyFactory), new RangeTask(middle, to, threshold, bodyFactory));
+    }
+  }
+
+
+  // Private constructor to avoid compiler's implicit one
+  private BatchMoveValidator() { throw new AssertionError("BatchMoveValidator class should not be instantiated"); }
+}
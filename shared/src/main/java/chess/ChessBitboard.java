@@ -0,0 +1,483 @@
+package chess;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+import static chess.ChessGame.TeamColor.*;
+import static chess.ChessPiece.PieceType.*;
+
+/**
+ * A 64-bit bitboard representation of a chess board.
+ * <p>
+ * Each piece type of each color is stored as a single long where bit (row - 1) * 8 + (col - 1) is set
+ * when that square holds such a piece (bit 0 is a1, bit 63 is h8). Occupancy masks for each color and
+ * for the whole board are kept alongside so that emptiness and enemy checks are single AND operations.
+ * Only piece placement is held, so castling and en passant moves are left to ChessBoard, which
+ * tracks the castling rights and en passant square.
+ */
+public class ChessBitboard {
+
+  private static final long FILE_A = 0x0101010101010101L;
+  private static final long FILE_H = FILE_A << 7;
+
+  private static final long[] KNIGHT_ATTACKS = ChessConstants.KNIGHT_ATTACK_MASKS;
+  private static final long[] KING_ATTACKS = ChessConstants.KING_ATTACK_MASKS;
+
+  private final long[][] pieces = new long[ChessGame.TeamColor.values().length][ChessPiece.PieceType.values().length];
+  private final long[] colorOccupancy = new long[ChessGame.TeamColor.values().length];
+  private long occupancy;
+
+
+  /**
+   * Constructs an empty ChessBitboard object.
+   */
+  public ChessBitboard() {
+    // All masks start empty
+  }
+
+
+  /**
+   * Constructs a ChessBitboard object by copying another.
+   *
+   * @param other bitboard to be copied
+   */
+  public ChessBitboard(ChessBitboard other) {
+    for (int color = 0; color < pieces.length; color++) {
+      System.arraycopy(other.pieces[color], 0, pieces[color], 0, pieces[color].length);
+    }
+    System.arraycopy(other.colorOccupancy, 0, colorOccupancy, 0, colorOccupancy.length);
+    occupancy = other.occupancy;
+  }
+
+
+  /**
+   * Builds a bitboard from the pieces found on a ChessBoard.
+   *
+   * @param board chess board to convert
+   * @return      bitboard holding the same pieces as 'board'
+   */
+  public static ChessBitboard fromChessBoard(ChessBoard board) {
+    ChessBitboard bitboard = new ChessBitboard();
+    for (int square = 0; square < 64; square++) {
+      ChessPiece piece = board.getPiece(positionOf(square));
+      if (piece != null) {
+        bitboard.setPiece(square, piece);
+      }
+    }
+    return bitboard;
+  }
+
+
+  /**
+   * Converts this bitboard back into an (otherwise empty) ChessBoard.
+   *
+   * @return  chess board holding the same pieces as this bitboard
+   */
+  public ChessBoard toChessBoard() {
+    ChessBoard board = new ChessBoard();
+    for (int square = 0; square < 64; square++) {
+      ChessPiece piece = getPiece(square);
+      if (piece != null) {
+        board.addPiece(positionOf(square), piece);
+      }
+    }
+    return board;
+  }
+
+
+  /**
+   * @param position  position on the board
+   * @return          bit index of 'position' (0 for a1, 63 for h8)
+   */
+  public static int squareOf(ChessPosition position) {
+    return position.toSquare();
+  }
+
+
+  /**
+   * @param square  bit index on the board
+   * @return        position described by 'square'
+   */
+  public static ChessPosition positionOf(int square) {
+    return ChessPosition.ofSquare(square);
+  }
+
+
+  /**
+   * Places a piece on the given square, replacing whatever was there.
+   *
+   * @param square  bit index on the board
+   * @param piece   piece to be placed (null to empty the square)
+   */
+  public void setPiece(int square, ChessPiece piece) {
+    clearSquare(square);
+    if (piece == null) {
+      return;
+    }
+    long bit = 1L << square;
+    pieces[piece.getTeamColor().ordinal()][piece.getPieceType().ordinal()] |= bit;
+    colorOccupancy[piece.getTeamColor().ordinal()] |= bit;
+    occupancy |= bit;
+  }
+
+
+  /**
+   * @param position  position on the board
+   * @param piece     piece to be placed (null to empty the square)
+   */
+  public void addPiece(ChessPosition position, ChessPiece piece) {
+    setPiece(squareOf(position), piece);
+  }
+
+
+  /**
+   * @param square  bit index on the board
+   * @return        the piece on 'square', or null if it is empty
+   */
+  public ChessPiece getPiece(int square) {
+    long bit = 1L << square;
+    if ((occupancy & bit) == 0) {
+      return null;
+    }
+    for (ChessGame.TeamColor color : ChessGame.TeamColor.values()) {
+      if ((colorOccupancy[color.ordinal()] & bit) == 0) {
+        continue;
+      }
+      for (ChessPiece.PieceType type : ChessPiece.PieceType.values()) {
+        if ((pieces[color.ordinal()][type.ordinal()] & bit) != 0) {
+          return ChessPiece.of(color, type);
+        }
+      }
+    }
+    throw new IllegalStateException("Occupancy masks out of sync at square " + square);
+  }
+
+
+  /**
+   * @param position  position on the board
+   * @return          the piece at 'position', or null if it is empty or off the board
+   */
+  public ChessPiece getPiece(ChessPosition position) {
+    if (!position.positionIsWithinBounds()) {
+      return null;
+    }
+    return getPiece(squareOf(position));
+  }
+
+
+  /**
+   * @param color team color
+   * @param type  piece type
+   * @return      mask of every square holding a 'color' 'type' piece
+   */
+  public long getPieces(ChessGame.TeamColor color, ChessPiece.PieceType type) {
+    return pieces[color.ordinal()][type.ordinal()];
+  }
+
+
+  /**
+   * @param color team color
+   * @return      mask of every square holding a piece of 'color'
+   */
+  public long getOccupancy(ChessGame.TeamColor color) {
+    return colorOccupancy[color.ordinal()];
+  }
+
+
+  /**
+   * @return  mask of every occupied square
+   */
+  public long getOccupancy() {
+    return occupancy;
+  }
+
+
+  /**
+   * Applies a move to the bitboard without any legality checks.
+   * The captured piece (if any) is removed and promotions replace the pawn.
+   *
+   * @param move  move to apply
+   */
+  public void makeMove(ChessMove move) {
+    int start = squareOf(move.getStartPosition());
+    int end = squareOf(move.getEndPosition());
+    ChessPiece movingPiece = getPiece(start);
+
+    if (move.hasPromotionPiece()) {
+      movingPiece = ChessPiece.of(movingPiece.getTeamColor(), move.getPromotionPiece());
+    }
+    setPiece(start, null);
+    setPiece(end, movingPiece);
+  }
+
+
+  /**
+   * Calculates all the pseudo-legal moves of the piece on 'position'; moves that leave the
+   * king in check are included.
+   *
+   * @param position  position on the board
+   * @return          collection of moves (empty if the square is empty)
+   */
+  public Collection<ChessMove> pieceMoves(ChessPosition position) {
+    MoveList moves = new MoveList();
+    addPieceMoves(squareOf(position), moves);
+    return moves.asSet();
+  }
+
+
+  /**
+   * Calculates the moves of the piece on 'position' that don't leave its own king in check.
+   * Castling and en passant are not generated (see the class comment).
+   *
+   * @param position  position on the board
+   * @return          collection of moves (empty if the square is empty)
+   */
+  public Collection<ChessMove> validMoves(ChessPosition position) {
+    return ChessRuleBook.getValidMoves(this, position);
+  }
+
+
+  /**
+   * Appends the pseudo-legal moves of the piece on 'square' (nothing if it is empty).
+   *
+   * @param square  bit index on the board
+   * @param moves   list to append to
+   */
+  void addPieceMoves(int square, MoveList moves) {
+    ChessPiece piece = getPiece(square);
+    if (piece == null) {
+      return;
+    }
+
+    ChessGame.TeamColor color = piece.getTeamColor();
+    if (piece.getPieceType() == PAWN) {
+      addPawnMoves(moves, square, color);
+      return;
+    }
+
+    long targets = attacksFrom(square, piece) & ~colorOccupancy[color.ordinal()];
+    while (targets != 0) {
+      int target = Long.numberOfTrailingZeros(targets);
+      targets &= targets - 1;
+      moves.add(square, target);
+    }
+  }
+
+
+  /**
+   * Returns if any piece of color 'attacker' attacks the given square.
+   *
+   * @param square    bit index on the board
+   * @param attacker  color of the attacking team
+   * @return          if 'square' is attacked by 'attacker'
+   */
+  public boolean isSquareAttacked(int square, ChessGame.TeamColor attacker) {
+    return isSquareAttacked(square, attacker, occupancy, 0);
+  }
+
+
+  /**
+   * Returns if moving the piece on 'startSquare' to 'endSquare' would leave its own king in
+   * check. Nothing is moved: the attack test runs on the occupancy the move would leave, with
+   * any piece captured on 'endSquare' left out of the attackers.
+   *
+   * @param startSquare bit index of the moving piece
+   * @param endSquare   bit index it moves to
+   * @return            if the move is illegal because of king safety
+   */
+  boolean leavesKingInCheck(int startSquare, int endSquare) {
+    long startBit = 1L << startSquare;
+    long endBit = 1L << endSquare;
+    ChessGame.TeamColor color = ((colorOccupancy[WHITE.ordinal()] & startBit) != 0) ? WHITE : BLACK;
+    long king = pieces[color.ordinal()][KING.ordinal()];
+    if (king == 0) {
+      return false;
+    }
+
+    int kingSquare = ((king & startBit) != 0) ? endSquare : Long.numberOfTrailingZeros(king);
+    long occupancyAfter = (occupancy & ~startBit) | endBit;
+    return isSquareAttacked(kingSquare, (color == WHITE) ? BLACK : WHITE, occupancyAfter, endBit);
+  }
+
+
+  /**
+   * Attack test against an arbitrary occupancy, with the attacker's pieces on 'removed' ignored.
+   */
+  private boolean isSquareAttacked(int square, ChessGame.TeamColor attacker, long occupancy, long removed) {
+    long[] enemy = pieces[attacker.ordinal()];
+    long target = 1L << square;
+
+    long pawnAttackers = (attacker == WHITE)
+            ? southEast(target) | southWest(target)
+            : northEast(target) | northWest(target);
+    if ((pawnAttackers & enemy[PAWN.ordinal()] & ~removed) != 0
+            || (KNIGHT_ATTACKS[square] & enemy[KNIGHT.ordinal()] & ~removed) != 0
+            || (KING_ATTACKS[square] & enemy[KING.ordinal()] & ~removed) != 0) {
+      return true;
+    }
+
+    long straightSliders = (enemy[ROOK.ordinal()] | enemy[QUEEN.ordinal()]) & ~removed;
+    long diagonalSliders = (enemy[BISHOP.ordinal()] | enemy[QUEEN.ordinal()]) & ~removed;
+    return (rookAttacks(square, occupancy) & straightSliders) != 0
+            || (bishopAttacks(square, occupancy) & diagonalSliders) != 0;
+  }
+
+
+  /**
+   * @param teamColor team to revise for being in check
+   * @return          if the king of 'teamColor' is attacked
+   */
+  public boolean isInCheck(ChessGame.TeamColor teamColor) {
+    long king = pieces[teamColor.ordinal()][KING.ordinal()];
+    if (king == 0) {
+      return false;
+    }
+    ChessGame.TeamColor enemyColor = (teamColor == WHITE) ? BLACK : WHITE;
+    return isSquareAttacked(Long.numberOfTrailingZeros(king), enemyColor);
+  }
+
+
+  /**
+   * @param square  bit index on the board
+   * @param piece   non-pawn piece on 'square'
+   * @return        mask of every square attacked by 'piece'
+   */
+  private long attacksFrom(int square, ChessPiece piece) {
+    return switch (piece.getPieceType()) {
+      case KING -> KING_ATTACKS[square];
+      case KNIGHT -> KNIGHT_ATTACKS[square];
+      case ROOK -> rookAttacks(square, occupancy);
+      case BISHOP -> bishopAttacks(square, occupancy);
+      case QUEEN -> rookAttacks(square, occupancy) | bishopAttacks(square, occupancy);
+      default -> throw new IllegalArgumentException("Illegal PieceType accessed");
+    };
+  }
+
+
+  /**
+   * Adds single pushes, double pushes, captures and promotions for the pawn on 'square'.
+   */
+  private void addPawnMoves(MoveList moves, int square, ChessGame.TeamColor color) {
+    long bit = 1L << square;
+    long empty = ~occupancy;
+    long enemies = colorOccupancy[(color == WHITE) ? BLACK.ordinal() : WHITE.ordinal()];
+
+    long singlePush;
+    long doublePush;
+    long captures;
+    if (color == WHITE) {
+      singlePush = (bit << 8) & empty;
+      doublePush = (square / 8 == 1) ? (singlePush << 8) & empty : 0;
+      captures = (northEast(bit) | northWest(bit)) & enemies;
+    }
+    else {
+      singlePush = (bit >>> 8) & empty;
+      doublePush = (square / 8 == 6) ? (singlePush >>> 8) & empty : 0;
+      captures = (southEast(bit) | southWest(bit)) & enemies;
+    }
+
+    long targets = singlePush | doublePush | captures;
+    while (targets != 0) {
+      int target = Long.numberOfTrailingZeros(targets);
+      targets &= targets - 1;
+
+      if (target < 8 || target >= 56) {
+        moves.addPromotions(square, target);
+      }
+      else {
+        moves.add(square, target);
+      }
+    }
+  }
+
+
+  /**
+   * @return  mask of squares reached by sliding along ranks and files from 'square' over
+   *          'occupancy', blockers included
+   */
+  private static long rookAttacks(int square, long occupancy) {
+    long bit = 1L << square;
+    long attacks = 0;
+    for (long ray = bit << 8; ray != 0; ray <<= 8) {
+      attacks |= ray;
+      if ((ray & occupancy) != 0) break;
+    }
+    for (long ray = bit >>> 8; ray != 0; ray >>>= 8) {
+      attacks |= ray;
+      if ((ray & occupancy) != 0) break;
+    }
+    for (long ray = east(bit); ray != 0; ray = east(ray)) {
+      attacks |= ray;
+      if ((ray & occupancy) != 0) break;
+    }
+    for (long ray = west(bit); ray != 0; ray = west(ray)) {
+      attacks |= ray;
+      if ((ray & occupancy) != 0) break;
+    }
+    return attacks;
+  }
+
+
+  /**
+   * @return  mask of squares reached by sliding along diagonals from 'square' over
+   *          'occupancy', blockers included
+   */
+  private static long bishopAttacks(int square, long occupancy) {
+    long bit = 1L << square;
+    long attacks = 0;
+    for (long ray = northEast(bit); ray != 0; ray = northEast(ray)) {
+      attacks |= ray;
+      if ((ray & occupancy) != 0) break;
+    }
+    for (long ray = northWest(bit); ray != 0; ray = northWest(ray)) {
+      attacks |= ray;
+      if ((ray & occupancy) != 0) break;
+    }
+    for (long ray = southEast(bit); ray != 0; ray = southEast(ray)) {
+      attacks |= ray;
+      if ((ray & occupancy) != 0) break;
+    }
+    for (long ray = southWest(bit); ray != 0; ray = southWest(ray)) {
+      attacks |= ray;
+      if ((ray & occupancy) != 0) break;
+    }
+    return attacks;
+  }
+
+
+  /**
+   * Removes whatever piece occupies the given square from every mask.
+   */
+  private void clearSquare(int square) {
+    long mask = ~(1L << square);
+    for (int color = 0; color < pieces.length; color++) {
+      for (int type = 0; type < pieces[color].length; type++) {
+        pieces[color][type] &= mask;
+      }
+      colorOccupancy[color] &= mask;
+    }
+    occupancy &= mask;
+  }
+
+
+  private static long east(long bits) { return (bits << 1) & ~FILE_A; }
+  private static long west(long bits) { return (bits >>> 1) & ~FILE_H; }
+  private static long northEast(long bits) { return (bits << 9) & ~FILE_A; }
+  private static long northWest(long bits) { return (bits << 7) & ~FILE_H; }
+  private static long southEast(long bits) { return (bits >>> 7) & ~FILE_A; }
+  private static long southWest(long bits) { return (bits >>> 9) & ~FILE_H; }
+
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (o == null || getClass() != o.getClass()) return false;
+    ChessBitboard that = (ChessBitboard) o;
+    return Arrays.deepEquals(pieces, that.pieces);
+  }
+
+  @Override
+  public int hashCode() {
+    return Arrays.deepHashCode(pieces);
+  }
+}
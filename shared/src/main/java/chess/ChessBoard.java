@@ -12,13 +12,37 @@ public class ChessBoard implements Cloneable {
 
     private ChessPiece[][] board;
 
+    // Position state that the pieces alone don't show; updated on every move rather than read from history
+    private int castlingRights = ChessConstants.ALL_CASTLING_RIGHTS;
+    private int enPassantSquare = -1;
+    private int halfmoveClock;
+
+    // Undo token layout (see packUndo)
+    private static final int UNDO_CAPTURE_MASK = 0x1F;
+    private static final int UNDO_RIGHTS_SHIFT = 5;
+    private static final int UNDO_EN_PASSANT_SHIFT = 9;
+    private static final int UNDO_CLOCK_SHIFT = 16;
+
+    // Derived from 'board' and rebuilt lazily (e.g. after Gson fills in the matrix), so never serialized
+    private transient PieceList[] pieceLists;
+    private transient int[] kingSquares;
+    private transient long zobristKey;
+    private transient int[] materials;
+    private transient int[] pieceSquareScores;
+    private transient int phase;
+
+    // Moves applied with pushMove and their undo tokens, oldest first; grown on demand and never shrunk
+    private static final int INITIAL_UNDO_CAPACITY = 64;
+    private transient ChessMove[] pushedMoves;
+    private transient int[] pushedUndos;
+    private transient int pushedCount;
+
     /**
      * Constructs ChessBoard object, a blank double array of size 8x8.
+     * Call resetBoard() for the classic starting position.
      */
     public ChessBoard() {
-        //TODO get rid of the 1st line of this constructor (useless)
         board = new ChessPiece[ChessConstants.BOARD_SIZE][ChessConstants.BOARD_SIZE];
-        resetBoard();
     }
 
     /**
@@ -27,21 +51,94 @@ public class ChessBoard implements Cloneable {
      * @param board ChessBoard object to be cloned
      */
     public ChessBoard(ChessBoard board) throws CloneNotSupportedException {
-        this.board = board.clone().getBoardMatrix();
+        ChessBoard clonedBoard = board.clone();
+        this.board = clonedBoard.board;
+        this.castlingRights = clonedBoard.castlingRights;
+        this.enPassantSquare = clonedBoard.enPassantSquare;
+        this.halfmoveClock = clonedBoard.halfmoveClock;
     }
 
 
+    /**
+     * Boards are equal when they hold the same pieces on the same squares. Castling rights,
+     * en passant square and halfmove clock belong to the position and are compared by ChessGame.
+     */
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         ChessBoard that=(ChessBoard) o;
-        return Arrays.deepEquals(board, that.board);
+        // Different keys always mean different boards; equal keys still need the full comparison
+        return getZobristKey() == that.getZobristKey() && Arrays.deepEquals(board, that.board);
     }
 
     @Override
     public int hashCode() {
-        return Arrays.deepHashCode(board);
+        return Long.hashCode(getZobristKey());
+    }
+
+
+    /**
+     * Returns the Zobrist key of the pieces on this board. It is kept up to date on every
+     * addPiece, so reading it is O(1). Side to move is not part of the board; see
+     * ChessGame.getZobristKey.
+     *
+     * @return  64-bit hash of the piece placement
+     */
+    public long getZobristKey() {
+        ensureIndexed();
+        return zobristKey;
+    }
+
+
+    /**
+     * Material of one side in centipawns (pawn 100, knight 320, bishop 330, rook 500,
+     * queen 900). Kept up to date on every addPiece and move, so reading it is O(1).
+     *
+     * @param teamColor team to count
+     * @return          total value of the pieces of 'teamColor'
+     */
+    public int getMaterial(ChessGame.TeamColor teamColor) {
+        ensureIndexed();
+        return materials[teamColor.ordinal()];
+    }
+
+
+    /**
+     * Static evaluation in centipawns: material plus piece-square bonuses, with the king's
+     * bonus blended between middlegame and endgame by the material left. Every term is kept
+     * up to date as pieces are placed and removed, so this is O(1).
+     *
+     * @param perspective   team the score is for; the other team gets the negated score
+     * @return              positive if 'perspective' stands better
+     */
+    public int getEvaluation(ChessGame.TeamColor perspective) {
+        ensureIndexed();
+        int score = materials[WHITE.ordinal()] - materials[BLACK.ordinal()]
+                + pieceSquareScores[WHITE.ordinal()] - pieceSquareScores[BLACK.ordinal()]
+                + kingScore(WHITE) - kingScore(BLACK);
+        return (perspective == WHITE) ? score : -score;
+    }
+
+    private int kingScore(ChessGame.TeamColor teamColor) {
+        int kingSquare = kingSquares[teamColor.ordinal()];
+        return (kingSquare == -1) ? 0 : Evaluation.kingScore(teamColor, kingSquare, phase);
+    }
+
+
+    /**
+     * Returns the Zobrist key of the whole position with 'turn' to move: the placement key
+     * with the castling rights, any capturable en passant file and the side to move folded in.
+     *
+     * @param turn  team to move
+     * @return      64-bit hash of the position
+     */
+    long getPositionKey(ChessGame.TeamColor turn) {
+        long key = getZobristKey() ^ Zobrist.castlingKey(getCastlingRights());
+        if (hasEnPassantCapture(turn)) {
+            key ^= Zobrist.enPassantKey(enPassantSquare);
+        }
+        return (turn == BLACK) ? key ^ Zobrist.SIDE_TO_MOVE : key;
     }
 
 
@@ -55,14 +152,21 @@ public class ChessBoard implements Cloneable {
     public ChessBoard clone() throws CloneNotSupportedException {
         ChessBoard clonedBoard = (ChessBoard) super.clone();
 
-        // Deep copy of the ChessPiece objects
-        clonedBoard.board = new ChessPiece[ChessConstants.BOARD_SIZE][ChessConstants.BOARD_SIZE];
+        // ChessPiece objects are immutable, so only the rows need copying
+        clonedBoard.board = new ChessPiece[ChessConstants.BOARD_SIZE][];
         for (int i = 0; i < ChessConstants.BOARD_SIZE; i++) {
-            for (int j = 0; j < ChessConstants.BOARD_SIZE; j++) {
-                if (board[i][j] != null) {
-                    clonedBoard.board[i][j] = (ChessPiece) board[i][j].clone();
-                }
-            }
+            clonedBoard.board[i] = board[i].clone();
+        }
+
+        if (pieceLists != null) {
+            clonedBoard.pieceLists = new PieceList[]{new PieceList(pieceLists[0]), new PieceList(pieceLists[1])};
+            clonedBoard.kingSquares = kingSquares.clone();
+            clonedBoard.materials = materials.clone();
+            clonedBoard.pieceSquareScores = pieceSquareScores.clone();
+        }
+        if (pushedMoves != null) {
+            clonedBoard.pushedMoves = pushedMoves.clone();
+            clonedBoard.pushedUndos = pushedUndos.clone();
         }
 
         return clonedBoard;
@@ -76,44 +180,129 @@ public class ChessBoard implements Cloneable {
      * @return          the location of the king
      */
     public ChessPosition getKingPosition(ChessGame.TeamColor teamColor) {
-        int rowIt = 0;
-        for (ChessPiece[] row : board) {
-            int colIt = 0;
-            for (ChessPiece piece : row) {
-                if (piece != null && piece.getTeamColor() == teamColor && piece.getPieceType() == ChessPiece.PieceType.KING) {
-                    return new ChessPosition(rowIt + 1, colIt + 1);
-                }
-                colIt++;
-            }
-            rowIt++;
+        ChessPosition kingPosition = findKingPosition(teamColor);
+        if (kingPosition == null) {
+            throw new IllegalStateException("King not found on board");
         }
-        throw new IllegalStateException("King not found on board");
+        return kingPosition;
+    }
+
+
+    /**
+     * Locates the position of the king on the board without requiring one to exist.
+     *
+     * @param teamColor the color of the king to search
+     * @return          the location of the king, or null if there is none
+     */
+    ChessPosition findKingPosition(ChessGame.TeamColor teamColor) {
+        int kingSquare = getKingSquare(teamColor);
+        return (kingSquare == -1) ? null : ChessPosition.ofSquare(kingSquare);
+    }
+
+
+    /**
+     * @param teamColor the color of the king to search
+     * @return          square index of that king, or -1 if there is none
+     */
+    int getKingSquare(ChessGame.TeamColor teamColor) {
+        ensureIndexed();
+        return kingSquares[teamColor.ordinal()];
     }
 
 
     /**
      * Used to find all friendly pieces on the 'board' attribute.
-     * !Originally generated by ChatGPT!
      *
      * @return  coordinates array locating friendly pieces within the board
      */
     public Collection<ChessPosition> iterateForFriendlyPieces(ChessGame.TeamColor teamTurn) {
+        PieceList pieceList = getPieceList(teamTurn);
+        Collection<ChessPosition> friendlyPositions = new ArrayList<>(pieceList.size());
+        for (int i = 0; i < pieceList.size(); i++) {
+            friendlyPositions.add(ChessPosition.ofSquare(pieceList.get(i)));
+        }
+        return friendlyPositions;
+    }
+
+
+    /**
+     * Exposes the squares of one team's pieces without copying them; the list changes as the
+     * board does, so it must not be iterated across moves.
+     *
+     * @param teamColor team whose pieces are wanted
+     * @return          live list of the squares holding 'teamColor' pieces
+     */
+    PieceList getPieceList(ChessGame.TeamColor teamColor) {
+        ensureIndexed();
+        return pieceLists[teamColor.ordinal()];
+    }
+
 
-        Collection<ChessPosition> friendlyPositions = new HashSet<>();
+    /**
+     * Builds the piece lists and king squares from 'board' if they are not present yet.
+     */
+    private void ensureIndexed() {
+        if (pieceLists != null) {
+            return;
+        }
 
-        int rowIt = 0;
-        for (ChessPiece[] row : board) {
-            int colIt = 0;
-            for (ChessPiece piece : row) {
-                if (piece != null && piece.getTeamColor() == teamTurn) {
-                    friendlyPositions.add(new ChessPosition(rowIt + 1, colIt + 1));
+        pieceLists = new PieceList[]{new PieceList(), new PieceList()};
+        kingSquares = new int[]{-1, -1};
+        zobristKey = 0;
+        materials = new int[2];
+        pieceSquareScores = new int[2];
+        phase = 0;
+        for (int i = 0; i < ChessConstants.BOARD_SIZE; i++) {
+            for (int j = 0; j < ChessConstants.BOARD_SIZE; j++) {
+                if (board[i][j] != null) {
+                    indexPiece(i * ChessConstants.BOARD_SIZE + j, board[i][j]);
                 }
-                colIt++;
             }
-            rowIt++;
         }
+    }
 
-        return friendlyPositions;
+
+    /**
+     * Records a piece that was just placed on 'square'.
+     */
+    private void indexPiece(int square, ChessPiece piece) {
+        zobristKey ^= Zobrist.pieceKey(piece, square);
+        int color = piece.getTeamColor().ordinal();
+        materials[color] += Evaluation.material(piece);
+        pieceSquareScores[color] += Evaluation.pieceSquareScore(piece, square);
+        phase += Evaluation.phaseWeight(piece);
+        pieceLists[color].add(square);
+        if (piece.getPieceType() == KING) {
+            kingSquares[color] = square;
+        }
+    }
+
+
+    /**
+     * Forgets a piece that was just removed from 'square'.
+     */
+    private void unindexPiece(int square, ChessPiece piece) {
+        zobristKey ^= Zobrist.pieceKey(piece, square);
+        int color = piece.getTeamColor().ordinal();
+        materials[color] -= Evaluation.material(piece);
+        pieceSquareScores[color] -= Evaluation.pieceSquareScore(piece, square);
+        phase -= Evaluation.phaseWeight(piece);
+        pieceLists[color].remove(square);
+        if (kingSquares[color] != square) {
+            return;
+        }
+
+        // Moves place a king on its new square before clearing the old one, so only a king
+        // removed outright (by addPiece, or captured on a board set up by hand) gets here
+        kingSquares[color] = -1;
+        PieceList pieceList = pieceLists[color];
+        for (int i = 0; i < pieceList.size(); i++) {
+            int otherSquare = pieceList.get(i);
+            if (getPiece(otherSquare).getPieceType() == KING) {
+                kingSquares[color] = otherSquare;
+                break;
+            }
+        }
     }
 
 
@@ -127,16 +316,268 @@ public class ChessBoard implements Cloneable {
         if (!validateMove(move)) {
             throw new InvalidMoveException("Invalid move attempted: " + move);
         }
+        makeUncheckedMove(move);
+    }
+
+
+    /**
+     * Applies a move in place without validating it; pair with unmakeMove to take it back.
+     * Used for trying out candidate moves without cloning the board. Castling also moves the
+     * rook, en passant removes the passed pawn, and the castling rights, en passant square and
+     * halfmove clock are updated.
+     *
+     * @param move  move to apply
+     * @return      undo token for unmakeMove (see capturedPieceOf for the captured piece)
+     */
+    int makeUncheckedMove(ChessMove move) {
+        int startSquare = move.getStartPosition().toSquare();
+        int endSquare = move.getEndPosition().toSquare();
+        ChessPiece movingPiece = getPiece(startSquare);
+        boolean isPawn = movingPiece.getPieceType() == PAWN;
+
+        int captureSquare = endSquare;
+        if (isPawn && endSquare == enPassantSquare && isDiagonalStep(startSquare, endSquare)) {
+            // En passant: the captured pawn stands beside the start square, not on the end square
+            captureSquare = startSquare - startSquare % ChessConstants.BOARD_SIZE + endSquare % ChessConstants.BOARD_SIZE;
+        }
+        ChessPiece capturedPiece = getPiece(captureSquare);
+        int undo = packUndo(capturedPiece);
+
+        // The piece lands before its start square is cleared, so a moving king's square is
+        // simply overwritten rather than searched for (see unindexPiece)
+        setPiece(captureSquare, null);
+        setPiece(endSquare, move.hasPromotionPiece()
+                ? ChessPiece.of(movingPiece.getTeamColor(), move.getPromotionPiece()) : movingPiece);
+        setPiece(startSquare, null);
+
+        int castle = (movingPiece.getPieceType() == KING) ? castlingIndex(startSquare, endSquare) : -1;
+        if (castle != -1) {
+            setPiece(ChessConstants.CASTLING_ROOK_TO[castle], getPiece(ChessConstants.CASTLING_ROOK_FROM[castle]));
+            setPiece(ChessConstants.CASTLING_ROOK_FROM[castle], null);
+        }
+
+        castlingRights &= ChessConstants.CASTLING_RIGHTS_KEPT[startSquare] & ChessConstants.CASTLING_RIGHTS_KEPT[endSquare];
+        enPassantSquare = (isPawn && Math.abs(endSquare - startSquare) == 2 * ChessConstants.BOARD_SIZE)
+                ? (startSquare + endSquare) / 2 : -1;
+        halfmoveClock = (isPawn || capturedPiece != null) ? 0 : halfmoveClock + 1;
+        return undo;
+    }
 
-        ChessPiece startPiece = getPiece(move);
-        addEmptyPiece(move.getStartPosition());
 
+    /**
+     * Takes back a move applied with makeUncheckedMove, restoring the board exactly.
+     *
+     * @param move  move to take back
+     * @param undo  token returned by makeUncheckedMove for 'move'
+     */
+    void unmakeMove(ChessMove move, int undo) {
+        int startSquare = move.getStartPosition().toSquare();
+        int endSquare = move.getEndPosition().toSquare();
+        ChessPiece movedPiece = getPiece(endSquare);
         if (move.hasPromotionPiece()) {
-            addPiece(move.getEndPosition(), new ChessPiece(startPiece.getTeamColor(), move.getPromotionPiece()));
+            movedPiece = ChessPiece.of(movedPiece.getTeamColor(), PAWN);
+        }
+
+        castlingRights = undo >>> UNDO_RIGHTS_SHIFT & 0xF;
+        enPassantSquare = (undo >>> UNDO_EN_PASSANT_SHIFT & 0x7F) - 1;
+        halfmoveClock = undo >>> UNDO_CLOCK_SHIFT;
+
+        int captureSquare = endSquare;
+        if (movedPiece.getPieceType() == PAWN && endSquare == enPassantSquare && isDiagonalStep(startSquare, endSquare)) {
+            captureSquare = startSquare - startSquare % ChessConstants.BOARD_SIZE + endSquare % ChessConstants.BOARD_SIZE;
+        }
+
+        int castle = (movedPiece.getPieceType() == KING) ? castlingIndex(startSquare, endSquare) : -1;
+        if (castle != -1) {
+            setPiece(ChessConstants.CASTLING_ROOK_FROM[castle], getPiece(ChessConstants.CASTLING_ROOK_TO[castle]));
+            setPiece(ChessConstants.CASTLING_ROOK_TO[castle], null);
+        }
+
+        // Back to the start square first, as in makeUncheckedMove
+        setPiece(startSquare, movedPiece);
+        setPiece(endSquare, null);
+        setPiece(captureSquare, capturedPieceOf(undo));
+    }
+
+
+    /**
+     * Applies a move in place without validating it, like makeUncheckedMove, and keeps its undo
+     * token on the board's own undo stack. A search can then go any number of moves deep and
+     * unwind with popMove, with no tokens of its own; the stack is reused, so once it is deep
+     * enough neither call allocates. Moves that are never taken back belong in makeUncheckedMove.
+     *
+     * @param move  move to apply
+     * @return      undo token of the move, for capturedPieceOf
+     */
+    int pushMove(ChessMove move) {
+        if (pushedMoves == null || pushedCount == pushedMoves.length) {
+            int capacity = (pushedMoves == null) ? INITIAL_UNDO_CAPACITY : pushedMoves.length * 2;
+            pushedMoves = (pushedMoves == null) ? new ChessMove[capacity] : Arrays.copyOf(pushedMoves, capacity);
+            pushedUndos = (pushedUndos == null) ? new int[capacity] : Arrays.copyOf(pushedUndos, capacity);
         }
-        else {
-            addPiece(move.getEndPosition(), new ChessPiece(startPiece.getTeamColor(), startPiece.getPieceType()));
+        int undo = makeUncheckedMove(move);
+        pushedMoves[pushedCount] = move;
+        pushedUndos[pushedCount] = undo;
+        pushedCount++;
+        return undo;
+    }
+
+
+    /**
+     * Takes back the last move applied with pushMove, restoring the board exactly.
+     *
+     * @throws IllegalStateException if there is no pushed move left
+     */
+    void popMove() {
+        if (pushedCount == 0) {
+            throw new IllegalStateException("No pushed move to take back");
         }
+        pushedCount--;
+        unmakeMove(pushedMoves[pushedCount], pushedUndos[pushedCount]);
+    }
+
+
+    /**
+     * @return  number of moves applied with pushMove and not yet taken back
+     */
+    int getPushedMoveCount() {
+        return pushedCount;
+    }
+
+
+    /**
+     * @param undo  token returned by makeUncheckedMove
+     * @return      the piece that move captured, or null if it captured nothing
+     */
+    static ChessPiece capturedPieceOf(int undo) {
+        int code = undo & UNDO_CAPTURE_MASK;
+        return (code == 0) ? null : ChessPiece.ofCode(code - 1);
+    }
+
+
+    /**
+     * Packs everything a move destroys into one int: the captured piece code + 1 (0 for none)
+     * in bits 0-4, castling rights in bits 5-8, en passant square + 1 in bits 9-15 and the
+     * halfmove clock (saturating) in bits 16-31.
+     */
+    private int packUndo(ChessPiece capturedPiece) {
+        int captureCode = (capturedPiece == null) ? 0 : capturedPiece.toCode() + 1;
+        return captureCode
+                | castlingRights << UNDO_RIGHTS_SHIFT
+                | (enPassantSquare + 1) << UNDO_EN_PASSANT_SHIFT
+                | Math.min(halfmoveClock, 0xFFFF) << UNDO_CLOCK_SHIFT;
+    }
+
+    private static boolean isDiagonalStep(int startSquare, int endSquare) {
+        return startSquare % ChessConstants.BOARD_SIZE != endSquare % ChessConstants.BOARD_SIZE;
+    }
+
+    /**
+     * @return  index into the ChessConstants.CASTLING_* arrays of a king move, or -1 if it isn't castling
+     */
+    private static int castlingIndex(int startSquare, int endSquare) {
+        for (int castle = 0; castle < ChessConstants.CASTLING_RIGHTS.length; castle++) {
+            if (ChessConstants.CASTLING_KING_FROM[castle] == startSquare && ChessConstants.CASTLING_KING_TO[castle] == endSquare) {
+                return castle;
+            }
+        }
+        return -1;
+    }
+
+
+    /**
+     * Returns the castling rights still available: a right is only listed while its king and
+     * rook stand on their home squares, so boards set up by hand castle when the pieces allow.
+     *
+     * @return  bits of ChessConstants.WHITE_KINGSIDE, WHITE_QUEENSIDE, BLACK_KINGSIDE, BLACK_QUEENSIDE
+     */
+    public int getCastlingRights() {
+        int rights = castlingRights;
+        for (int castle = 0; castle < ChessConstants.CASTLING_RIGHTS.length; castle++) {
+            ChessGame.TeamColor color = (castle < 2) ? WHITE : BLACK;
+            if ((rights & ChessConstants.CASTLING_RIGHTS[castle]) != 0
+                    && !(isPiece(ChessConstants.CASTLING_KING_FROM[castle], color, KING)
+                         && isPiece(ChessConstants.CASTLING_ROOK_FROM[castle], color, ROOK))) {
+                rights &= ~ChessConstants.CASTLING_RIGHTS[castle];
+            }
+        }
+        return rights;
+    }
+
+
+    /**
+     * @param castlingRights    castling rights bits (see getCastlingRights)
+     */
+    void setCastlingRights(int castlingRights) {
+        this.castlingRights = castlingRights & ChessConstants.ALL_CASTLING_RIGHTS;
+    }
+
+
+    /**
+     * @return  the square a pawn passed over on the last move, or null if the last move wasn't a double pawn push
+     */
+    public ChessPosition getEnPassantPosition() {
+        return (enPassantSquare == -1) ? null : ChessPosition.ofSquare(enPassantSquare);
+    }
+
+
+    /**
+     * @return  en passant target square index, or -1 if there is none
+     */
+    int getEnPassantSquare() {
+        return enPassantSquare;
+    }
+
+
+    /**
+     * @param enPassantSquare   en passant target square index, or -1 for none
+     */
+    void setEnPassantSquare(int enPassantSquare) {
+        this.enPassantSquare = enPassantSquare;
+    }
+
+
+    /**
+     * Returns if a pawn of 'color' can capture en passant right now (ignoring whether that
+     * would leave its king in check).
+     *
+     * @param color team to move
+     * @return      if an en passant capture is available to 'color'
+     */
+    boolean hasEnPassantCapture(ChessGame.TeamColor color) {
+        if (enPassantSquare == -1) {
+            return false;
+        }
+        // A 'color' pawn attacks the square from exactly where an enemy pawn on it would attack
+        ChessGame.TeamColor enemyColor = (color == WHITE) ? BLACK : WHITE;
+        for (int square : ChessConstants.PAWN_ATTACKS[enemyColor.ordinal()][enPassantSquare]) {
+            if (isPiece(square, color, PAWN)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+
+    /**
+     * @return  number of moves since the last capture or pawn move, for the fifty-move rule
+     */
+    public int getHalfmoveClock() {
+        return halfmoveClock;
+    }
+
+
+    /**
+     * @param halfmoveClock number of moves since the last capture or pawn move
+     */
+    void setHalfmoveClock(int halfmoveClock) {
+        this.halfmoveClock = halfmoveClock;
+    }
+
+
+    private boolean isPiece(int square, ChessGame.TeamColor color, ChessPiece.PieceType type) {
+        ChessPiece piece = getPiece(square);
+        return piece != null && piece.getTeamColor() == color && piece.getPieceType() == type;
     }
 
 
@@ -184,7 +625,27 @@ public class ChessBoard implements Cloneable {
      * @param piece    piece to be added
      */
     public void addPiece(ChessPosition position, ChessPiece piece) {
-        board[position.getRow() - 1][position.getColumn() - 1] = piece;
+        setPiece(position.toSquare(), piece);
+    }
+
+
+    /**
+     * Places a piece (or null for none) on a square, keeping the piece lists and key up to date.
+     */
+    private void setPiece(int square, ChessPiece piece) {
+        ensureIndexed();
+
+        int row = square / ChessConstants.BOARD_SIZE;
+        int col = square % ChessConstants.BOARD_SIZE;
+        ChessPiece replacedPiece = board[row][col];
+        board[row][col] = piece;
+
+        if (replacedPiece != null) {
+            unindexPiece(square, replacedPiece);
+        }
+        if (piece != null) {
+            indexPiece(square, piece);
+        }
     }
 
 
@@ -203,6 +664,17 @@ public class ChessBoard implements Cloneable {
     }
 
 
+    /**
+     * Gets a chess piece by square index, without allocating a ChessPosition.
+     *
+     * @param square    square index, (row - 1) * 8 + (col - 1)
+     * @return          the piece on the square, or null if it is empty
+     */
+    ChessPiece getPiece(int square) {
+        return board[square / ChessConstants.BOARD_SIZE][square % ChessConstants.BOARD_SIZE];
+    }
+
+
     /**
      * @param move selected ChessMove on the board
      * @return ChessPiece found at the start position of 'move'
@@ -213,6 +685,9 @@ public class ChessBoard implements Cloneable {
 
 
     /**
+     * Pieces must be changed through addPiece/makeMove rather than by writing to this matrix,
+     * or the piece lists will go stale.
+     *
      * @return  'board' attribute
      */
     public ChessPiece[][] getBoardMatrix() {
@@ -267,7 +742,7 @@ public class ChessBoard implements Cloneable {
             }
         }
         else if (rowDifference == 2) {    // Double forward push
-            ChessMove doubleMove = new ChessMove(move.getStartPosition(), 2 * direction, 0);
+            ChessMove doubleMove = ChessMove.of(move.getStartPosition(), 2 * direction, 0, null);
             return landsOnEmpty(move) && landsOnEmpty(doubleMove);
         }
         return false;                     // Invalid pawn move
@@ -289,14 +764,106 @@ public class ChessBoard implements Cloneable {
      */
     public void resetBoard() {
         board = new ChessPiece[][]{
-                {new ChessPiece(WHITE, ROOK), new ChessPiece(WHITE, KNIGHT), new ChessPiece(WHITE, BISHOP), new ChessPiece(WHITE, QUEEN), new ChessPiece(WHITE, KING), new ChessPiece(WHITE, BISHOP), new ChessPiece(WHITE, KNIGHT), new ChessPiece(WHITE, ROOK)},
-                {new ChessPiece(WHITE, PAWN), new ChessPiece(WHITE, PAWN), new ChessPiece(WHITE, PAWN), new ChessPiece(WHITE, PAWN), new ChessPiece(WHITE, PAWN), new ChessPiece(WHITE, PAWN), new ChessPiece(WHITE, PAWN), new ChessPiece(WHITE, PAWN)},
+                {ChessPiece.of(WHITE, ROOK), ChessPiece.of(WHITE, KNIGHT), ChessPiece.of(WHITE, BISHOP), ChessPiece.of(WHITE, QUEEN), ChessPiece.of(WHITE, KING), ChessPiece.of(WHITE, BISHOP), ChessPiece.of(WHITE, KNIGHT), ChessPiece.of(WHITE, ROOK)},
+                {ChessPiece.of(WHITE, PAWN), ChessPiece.of(WHITE, PAWN), ChessPiece.of(WHITE, PAWN), ChessPiece.of(WHITE, PAWN), ChessPiece.of(WHITE, PAWN), ChessPiece.of(WHITE, PAWN), ChessPiece.of(WHITE, PAWN), ChessPiece.of(WHITE, PAWN)},
                 {null, null, null, null, null, null, null, null},
                 {null, null, null, null, null, null, null, null},
                 {null, null, null, null, null, null, null, null},
                 {null, null, null, null, null, null, null, null},
-                {new ChessPiece(BLACK, PAWN), new ChessPiece(BLACK, PAWN), new ChessPiece(BLACK, PAWN), new ChessPiece(BLACK, PAWN), new ChessPiece(BLACK, PAWN), new ChessPiece(BLACK, PAWN), new ChessPiece(BLACK, PAWN), new ChessPiece(BLACK, PAWN)},
-                {new ChessPiece(BLACK, ROOK), new ChessPiece(BLACK, KNIGHT), new ChessPiece(BLACK, BISHOP), new ChessPiece(BLACK, QUEEN), new ChessPiece(BLACK, KING), new ChessPiece(BLACK, BISHOP), new ChessPiece(BLACK, KNIGHT), new ChessPiece(BLACK, ROOK)},
+                {ChessPiece.of(BLACK, PAWN), ChessPiece.of(BLACK, PAWN), ChessPiece.of(BLACK, PAWN), ChessPiece.of(BLACK, PAWN), ChessPiece.of(BLACK, PAWN), ChessPiece.of(BLACK, PAWN), ChessPiece.of(BLACK, PAWN), ChessPiece.of(BLACK, PAWN)},
+                {ChessPiece.of(BLACK, ROOK), ChessPiece.of(BLACK, KNIGHT), ChessPiece.of(BLACK, BISHOP), ChessPiece.of(BLACK, QUEEN), ChessPiece.of(BLACK, KING), ChessPiece.of(BLACK, BISHOP), ChessPiece.of(BLACK, KNIGHT), ChessPiece.of(BLACK, ROOK)},
         };
+        pieceLists = null;
+        castlingRights = ChessConstants.ALL_CASTLING_RIGHTS;
+        enPassantSquare = -1;
+        halfmoveClock = 0;
+    }
+
+
+    /**
+     * Builds a board from the piece placement field of a FEN string, e.g.
+     * "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR". Anything after the first space is ignored,
+     * so a full FEN string may be passed as well.
+     *
+     * @param fen   FEN piece placement, ranks 8 to 1 separated by '/'
+     * @return      new board holding those pieces
+     * @throws IllegalArgumentException if 'fen' is not a valid piece placement
+     */
+    public static ChessBoard fromFen(String fen) {
+        String placement = fen.strip().split("\\s+", 2)[0];
+        String[] ranks = placement.split("/", -1);
+        if (ranks.length != ChessConstants.BOARD_SIZE) {
+            throw new IllegalArgumentException("FEN placement must have 8 ranks: " + placement);
+        }
+
+        ChessBoard chessBoard = new ChessBoard();
+        for (int i = 0; i < ranks.length; i++) {
+            int row = ChessConstants.BOARD_SIZE - i;
+            int col = 1;
+            for (char c : ranks[i].toCharArray()) {
+                if ('1' <= c && c <= '8') {
+                    col += c - '0';
+                }
+                else if (col <= ChessConstants.BOARD_SIZE) {
+                    chessBoard.board[row - 1][col - 1] = pieceOfFenChar(c);
+                    col++;
+                }
+                else {
+                    col++;
+                }
+            }
+            if (col != ChessConstants.BOARD_SIZE + 1) {
+                throw new IllegalArgumentException("FEN rank must cover 8 squares: " + ranks[i]);
+            }
+        }
+        return chessBoard;
+    }
+
+
+    /**
+     * Formats the piece placement field of FEN for this board.
+     *
+     * @return  FEN piece placement, ranks 8 to 1 separated by '/'
+     */
+    public String toFen() {
+        StringBuilder fen = new StringBuilder();
+        for (int row = ChessConstants.BOARD_SIZE; row >= 1; row--) {
+            int emptySquares = 0;
+            for (ChessPiece piece : board[row - 1]) {
+                if (piece == null) {
+                    emptySquares++;
+                    continue;
+                }
+                if (emptySquares > 0) {
+                    fen.append(emptySquares);
+                    emptySquares = 0;
+                }
+                fen.append(fenCharOf(piece));
+            }
+            if (emptySquares > 0) {
+                fen.append(emptySquares);
+            }
+            if (row > 1) {
+                fen.append('/');
+            }
+        }
+        return fen.toString();
+    }
+
+
+    /**
+     * @return  FEN letter of 'piece': upper case for white, lower case for black
+     */
+    private static char fenCharOf(ChessPiece piece) {
+        char c = piece.getPieceType().getPieceChar();
+        return (piece.getTeamColor() == WHITE) ? Character.toUpperCase(c) : c;
+    }
+
+    /**
+     * @return  shared piece for a FEN letter
+     */
+    private static ChessPiece pieceOfFenChar(char c) {
+        ChessGame.TeamColor color = Character.isUpperCase(c) ? WHITE : BLACK;
+        return ChessPiece.of(color, ChessPiece.PieceType.ofChar(c));
     }
 }
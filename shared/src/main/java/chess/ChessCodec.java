@@ -0,0 +1,137 @@
+package chess;
+
+import java.io.ByteArrayOutputStream;
+
+/**
+ * Compact binary form of a chess position, for storage and network payloads.
+ * <p>
+ * Layout (big-endian):
+ * <pre>
+ *   byte 0       format version (FORMAT_VERSION)
+ *   byte 1       bit 0 set when black is to move, castling rights in bits 1-4
+ *   byte 2       en passant square + 1, or 0 for none
+ *   bytes 3-10   occupancy: bit n set when square n holds a piece
+ *   bytes 11-    one nibble per occupied square in ascending square order (see
+ *                ChessPiece.toCode), high nibble first
+ * </pre>
+ * Squares are indexed (row - 1) * 8 + (col - 1). The starting position takes 27 bytes and no
+ * position takes more than 43. Move counters are not part of the position and are not kept. Moves have their own 16-bit form, see ChessMove.encode().
+ */
+public interface ChessCodec {
+
+  byte FORMAT_VERSION = 2;
+
+  int HEADER_BYTES = 11;
+
+  int OCCUPANCY_OFFSET = 3;
+
+
+  /**
+   * Packs the board, side to move, castling rights and en passant square of 'game'.
+   *
+   * @param game  game to encode (not modified)
+   * @return      binary form of the position
+   */
+  static byte[] encodePosition(ChessGame game) {
+    ChessBoard board = game.getBoard();
+    long occupancy = 0;
+    for (int square = 0; square < ChessConstants.SQUARE_COUNT; square++) {
+      if (board.getPiece(square) != null) {
+        occupancy |= 1L << square;
+      }
+    }
+
+    int pieceCount = Long.bitCount(occupancy);
+    byte[] bytes = new byte[HEADER_BYTES + (pieceCount + 1) / 2];
+    bytes[0] = FORMAT_VERSION;
+    bytes[1] = (byte) (((game.getTeamTurn() == ChessGame.TeamColor.BLACK) ? 1 : 0) | board.getCastlingRights() << 1);
+    bytes[2] = (byte) (board.getEnPassantSquare() + 1);
+    for (int i = 0; i < Long.BYTES; i++) {
+      bytes[OCCUPANCY_OFFSET + i] = (byte) (occupancy >>> (Long.SIZE - Byte.SIZE * (i + 1)));
+    }
+
+    int nibble = 0;
+    for (long remaining = occupancy; remaining != 0; remaining &= remaining - 1) {
+      int code = board.getPiece(Long.numberOfTrailingZeros(remaining)).toCode();
+      bytes[HEADER_BYTES + nibble / 2] |= (byte) ((nibble % 2 == 0) ? code << 4 : code);
+      nibble++;
+    }
+    return bytes;
+  }
+
+
+  /**
+   * Rebuilds a game from the output of encodePosition.
+   *
+   * @param bytes binary form of a position
+   * @return      new game in that position
+   * @throws IllegalArgumentException if 'bytes' is not a valid encoded position
+   */
+  static ChessGame decodePosition(byte[] bytes) {
+    if (bytes.length < HEADER_BYTES || bytes[0] != FORMAT_VERSION) {
+      throw new IllegalArgumentException("Not an encoded position");
+    }
+
+    long occupancy = 0;
+    for (int i = 0; i < Long.BYTES; i++) {
+      occupancy = (occupancy << Byte.SIZE) | (bytes[OCCUPANCY_OFFSET + i] & 0xFF);
+    }
+    if (bytes.length != HEADER_BYTES + (Long.bitCount(occupancy) + 1) / 2) {
+      throw new IllegalArgumentException("Encoded position has the wrong length");
+    }
+    int enPassantSquare = (bytes[2] & 0xFF) - 1;
+    if (enPassantSquare >= ChessConstants.SQUARE_COUNT) {
+      throw new IllegalArgumentException("Bad en passant square: " + enPassantSquare);
+    }
+
+    ChessBoard board = new ChessBoard();
+    board.setCastlingRights(bytes[1] >>> 1);
+    board.setEnPassantSquare(enPassantSquare);
+    int nibble = 0;
+    for (long remaining = occupancy; remaining != 0; remaining &= remaining - 1) {
+      int packed = bytes[HEADER_BYTES + nibble / 2];
+      int code = (nibble % 2 == 0) ? (packed >>> 4) & 0xF : packed & 0xF;
+      board.addPiece(ChessPosition.ofSquare(Long.numberOfTrailingZeros(remaining)), ChessPiece.ofCode(code));
+      nibble++;
+    }
+
+    ChessGame.TeamColor turn = ((bytes[1] & 1) != 0) ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+    return new ChessGame(board, turn);
+  }
+
+
+  /**
+   * Packs a sequence of moves, two bytes each, in the form of ChessMove.encode().
+   *
+   * @param moves moves to encode
+   * @return      binary form of 'moves'
+   */
+  static byte[] encodeMoves(Iterable<ChessMove> moves) {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    for (ChessMove move : moves) {
+      short code = move.encode();
+      out.write(code >>> Byte.SIZE);
+      out.write(code);
+    }
+    return out.toByteArray();
+  }
+
+
+  /**
+   * Rebuilds a move sequence from the output of encodeMoves.
+   *
+   * @param bytes binary form of a move sequence
+   * @return      the moves, in order
+   * @throws IllegalArgumentException if 'bytes' is not a valid encoded move sequence
+   */
+  static ChessMove[] decodeMoves(byte[] bytes) {
+    if (bytes.length % 2 != 0) {
+      throw new IllegalArgumentException("Encoded moves have an odd length");
+    }
+    ChessMove[] moves = new ChessMove[bytes.length / 2];
+    for (int i = 0; i < moves.length; i++) {
+      moves[i] = ChessMove.decode((short) ((bytes[2 * i] & 0xFF) << Byte.SIZE | (bytes[2 * i + 1] & 0xFF)));
+    }
+    return moves;
+  }
+}
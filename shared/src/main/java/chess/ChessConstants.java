@@ -1,7 +1,9 @@
 package chess;
 
+import java.util.Arrays;
 import java.util.EnumSet;
 import java.util.Set;
+import java.util.regex.Pattern;
 
 /**
  * Class of chess constants
@@ -16,7 +18,121 @@ public class ChessConstants {
   protected static final Set<ChessPiece.PieceType> PROMOTION_TYPES = EnumSet.of(ChessPiece.PieceType.QUEEN, ChessPiece.PieceType.ROOK,
           ChessPiece.PieceType.BISHOP, ChessPiece.PieceType.KNIGHT);
 
+  // SAN other than castling: piece letter, start file, start rank, capture mark, target square, promotion piece
+  protected static final Pattern SAN_PATTERN = Pattern.compile("([KQRBN])?([a-h])?([1-8])?x?([a-h][1-8])(?:=?([QRBN]))?");
+
   public static final int BOARD_SIZE = 8;
+  public static final int SQUARE_COUNT = BOARD_SIZE * BOARD_SIZE;
+
+  /*
+   * Per-square tables built once at class load. Squares are indexed (row - 1) * 8 + (col - 1),
+   * and every entry only lists squares that are on the board, so no bounds checks are needed
+   * when walking them.
+   */
+
+  // [square] -> squares a knight/king on 'square' can reach
+  protected static final int[][] KNIGHT_TARGETS = new int[SQUARE_COUNT][];
+  protected static final int[][] KING_TARGETS = new int[SQUARE_COUNT][];
+
+  // [square][direction] -> squares along that ray, nearest first (rook, bishop and queen directions)
+  protected static final int[][][] ROOK_RAYS = new int[SQUARE_COUNT][][];
+  protected static final int[][][] BISHOP_RAYS = new int[SQUARE_COUNT][][];
+  protected static final int[][][] QUEEN_RAYS = new int[SQUARE_COUNT][][];
+
+  // [color.ordinal()][square] -> squares a pawn of that color on 'square' attacks
+  protected static final int[][][] PAWN_ATTACKS = new int[ChessGame.TeamColor.values().length][SQUARE_COUNT][];
+
+  // Bitmask forms of the knight and king tables, bit n set for square n
+  protected static final long[] KNIGHT_ATTACK_MASKS = new long[SQUARE_COUNT];
+  protected static final long[] KING_ATTACK_MASKS = new long[SQUARE_COUNT];
+
+  /*
+   * Castling. Rights are bits of ChessBoard.getCastlingRights; the CASTLING_* arrays are indexed
+   * in the same order as the FEN castling letters: white king side (K), white queen side (Q),
+   * black king side (k), black queen side (q).
+   */
+  public static final int WHITE_KINGSIDE = 1;
+  public static final int WHITE_QUEENSIDE = 2;
+  public static final int BLACK_KINGSIDE = 4;
+  public static final int BLACK_QUEENSIDE = 8;
+  public static final int ALL_CASTLING_RIGHTS = WHITE_KINGSIDE | WHITE_QUEENSIDE | BLACK_KINGSIDE | BLACK_QUEENSIDE;
+
+  protected static final int[] CASTLING_RIGHTS = {WHITE_KINGSIDE, WHITE_QUEENSIDE, BLACK_KINGSIDE, BLACK_QUEENSIDE};
+  protected static final char[] CASTLING_CHARS = {'K', 'Q', 'k', 'q'};
+  protected static final int[] CASTLING_KING_FROM = {4, 4, 60, 60};
+  protected static final int[] CASTLING_KING_TO = {6, 2, 62, 58};
+  protected static final int[] CASTLING_ROOK_FROM = {7, 0, 63, 56};
+  protected static final int[] CASTLING_ROOK_TO = {5, 3, 61, 59};
+
+  // Squares between king and rook, which must be empty to castle
+  protected static final int[][] CASTLING_EMPTY_SQUARES = {{5, 6}, {1, 2, 3}, {61, 62}, {57, 58, 59}};
+
+  // [square] -> rights that survive a move from or onto 'square' (a king or rook leaving home, or a rook captured there)
+  protected static final int[] CASTLING_RIGHTS_KEPT = new int[SQUARE_COUNT];
+
+  static {
+    for (int square = 0; square < SQUARE_COUNT; square++) {
+      KNIGHT_TARGETS[square] = buildSteps(square, KNIGHT_DIRECTIONS);
+      KING_TARGETS[square] = buildSteps(square, ALL_DIRECTIONS);
+      ROOK_RAYS[square] = buildRays(square, ROOK_DIRECTIONS);
+      BISHOP_RAYS[square] = buildRays(square, BISHOP_DIRECTIONS);
+      QUEEN_RAYS[square] = buildRays(square, ALL_DIRECTIONS);
+      PAWN_ATTACKS[ChessGame.TeamColor.WHITE.ordinal()][square] = buildSteps(square, new int[][]{{1, -1}, {1, 1}});
+      PAWN_ATTACKS[ChessGame.TeamColor.BLACK.ordinal()][square] = buildSteps(square, new int[][]{{-1, -1}, {-1, 1}});
+      KNIGHT_ATTACK_MASKS[square] = toMask(KNIGHT_TARGETS[square]);
+      KING_ATTACK_MASKS[square] = toMask(KING_TARGETS[square]);
+    }
+
+    Arrays.fill(CASTLING_RIGHTS_KEPT, ALL_CASTLING_RIGHTS);
+    for (int castle = 0; castle < CASTLING_RIGHTS.length; castle++) {
+      CASTLING_RIGHTS_KEPT[CASTLING_KING_FROM[castle]] &= ~CASTLING_RIGHTS[castle];
+      CASTLING_RIGHTS_KEPT[CASTLING_ROOK_FROM[castle]] &= ~CASTLING_RIGHTS[castle];
+    }
+  }
+
+  /**
+   * @return  on-board squares reached from 'square' by a single step in each direction
+   */
+  private static int[] buildSteps(int square, int[][] directions) {
+    int row = square / BOARD_SIZE;
+    int col = square % BOARD_SIZE;
+    return Arrays.stream(directions)
+            .filter(direction -> isOnBoard(row + direction[0], col + direction[1]))
+            .mapToInt(direction -> (row + direction[0]) * BOARD_SIZE + col + direction[1])
+            .toArray();
+  }
+
+  /**
+   * @return  for each direction, the on-board squares reached by repeating it from 'square'
+   */
+  private static int[][] buildRays(int square, int[][] directions) {
+    int[][] rays = new int[directions.length][];
+    for (int i = 0; i < directions.length; i++) {
+      int row = square / BOARD_SIZE + directions[i][0];
+      int col = square % BOARD_SIZE + directions[i][1];
+      int[] ray = new int[BOARD_SIZE];
+      int length = 0;
+      while (isOnBoard(row, col)) {
+        ray[length++] = row * BOARD_SIZE + col;
+        row += directions[i][0];
+        col += directions[i][1];
+      }
+      rays[i] = Arrays.copyOf(ray, length);
+    }
+    return rays;
+  }
+
+  private static long toMask(int[] squares) {
+    long mask = 0;
+    for (int square : squares) {
+      mask |= 1L << square;
+    }
+    return mask;
+  }
+
+  private static boolean isOnBoard(int zeroBasedRow, int zeroBasedCol) {
+    return 0 <= zeroBasedRow && zeroBasedRow < BOARD_SIZE && 0 <= zeroBasedCol && zeroBasedCol < BOARD_SIZE;
+  }
 
   // Private constructor to avoid compiler's implicit one
   private ChessConstants() { throw new AssertionError("ChessConstants class should not be instantiated"); }
@@ -0,0 +1,688 @@
+package chess;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static chess.ChessGame.TeamColor;
+import static chess.ChessPiece.PieceType.*;
+
+/**
+ * Move search for bot opponents: negamax alpha-beta with iterative deepening under a time
+ * budget, a quiescence search over captures, and a transposition table keyed by position hash.
+ * Leaves are scored with ChessBoard.getEvaluation, which is kept up to date by every move.
+ * Moves are ordered transposition table move first, then captures by MVV-LVA (most valuable
+ * victim, least valuable attacker), then killer moves (quiet moves that caused a cutoff at the
+ * same ply).
+ * <p>
+ * The search runs on a private copy of the board, making and taking back moves on the board's
+ * own undo stack (pushMove/popMove), so the given game is never touched and no node allocates.
+ * An engine keeps its table between searches, which pays off when it plays a whole game; it is
+ * not thread-safe, so use one engine per thread.
+ * <p>
+ * With more than one search thread the engine runs a "Lazy SMP" search: helper threads search
+ * the same position on their own board copies, every other one a ply deeper, and share only
+ * the transposition table. What the helpers store there reorders and cuts off the main
+ * thread's search, whose move is the one returned. Table entries are written without locks;
+ * each key is stored XORed with its entry, so an entry torn by two threads writing at once no
+ * longer matches its key and is ignored. The helpers run on a pool owned by the engine, so a
+ * multi-threaded engine must be closed once it is no longer needed.
+ */
+public final class ChessEngine implements AutoCloseable {
+
+  public static final int DEFAULT_TABLE_BITS = 16;
+  public static final int MAX_DEPTH = 64;
+
+  // Budget that never runs out, for searches limited by depth alone
+  public static final long NO_TIME_LIMIT = Long.MAX_VALUE;
+
+  // Score of being mated at the root; a mate n plies away scores MATE_SCORE - n
+  static final int MATE_SCORE = 100_000;
+
+  private static final int MAX_PLY = 128;
+  private static final int MATE_BOUND = MATE_SCORE - MAX_PLY;
+  private static final int INFINITY = MATE_SCORE + 1;
+  private static final int NODES_PER_TIME_CHECK = 256;
+
+  // Centipawns by PieceType ordinal (KING, QUEEN, BISHOP, KNIGHT, ROOK, PAWN); the king's
+  // value only ranks it as the least welcome attacker in MVV-LVA
+  private static final int[] PIECE_VALUES = {2_000, 900, 330, 320, 500, 100};
+
+  // Move ordering tiers
+  private static final int TABLE_MOVE_SCORE = 1 << 30;
+  private static final int CAPTURE_SCORE = 1 << 20;
+  private static final int[] KILLER_SCORES = {1 << 19, 1 << 18};
+
+  // Transposition table entry bounds
+  private static final int EXACT = 1;
+  private static final int LOWER_BOUND = 2;
+  private static final int UPPER_BOUND = 3;
+
+  // Shared by the helpers. Entry: move code in bits 32-47, depth in bits 48-55, bound in bits
+  // 56-57 and the score in bits 0-31; its key slot holds key ^ entry
+  private final int tableMask;
+  private final long[] tableKeys;
+  private final long[] tableEntries;
+
+  // Helper searches of a multi-threaded engine (empty otherwise), all stopped by one signal
+  private final ChessEngine[] helpers;
+  private final ForkJoinPool helperPool;
+  private final AtomicBoolean stopSignal;
+
+  private final MoveList[] moveLists = new MoveList[MAX_PLY];
+  private final int[][] moveScores = new int[MAX_PLY][64];
+  private final int[][] killers = new int[MAX_PLY][2];
+
+  // Keys of the game's reversible history followed by those of the current search path
+  private long[] keyStack = new long[MAX_PLY];
+  private int keyCount;
+
+  private OpeningBook openingBook;
+
+  private ChessBoard board;
+
+  // Clock reading when the search started and nanoseconds it may take (Long.MAX_VALUE for no
+  // limit); time is checked as elapsed against budget, which can't overflow
+  private long startTime;
+  private long budgetNanos;
+  private int rootDepth;
+  private int rootBestMove;
+  private boolean aborted;
+
+  private long nodeCount;
+  private int lastScore;
+  private int lastDepth;
+
+
+  /**
+   * Constructs a ChessEngine object with a transposition table of 2^DEFAULT_TABLE_BITS entries
+   * (about 1 MB).
+   */
+  public ChessEngine() {
+    this(DEFAULT_TABLE_BITS);
+  }
+
+
+  /**
+   * Constructs a single-threaded ChessEngine object.
+   *
+   * @param tableBits log2 of the number of transposition table entries (16 bytes each)
+   */
+  public ChessEngine(int tableBits) {
+    this(tableBits, 1);
+  }
+
+
+  /**
+   * Constructs a ChessEngine object that searches on 'threadCount' threads: the calling thread
+   * and threadCount - 1 helpers on a ForkJoinPool of their own, shut down by close().
+   *
+   * @param tableBits   log2 of the number of transposition table entries (16 bytes each)
+   * @param threadCount number of threads per search
+   */
+  public ChessEngine(int tableBits, int threadCount) {
+    if (tableBits < 1 || tableBits > 26) {
+      throw new IllegalArgumentException("Table size must be between 2^1 and 2^26 entries");
+    }
+    if (threadCount < 1) {
+      throw new IllegalArgumentException("A search needs at least 1 thread");
+    }
+    tableMask = (1 << tableBits) - 1;
+    tableKeys = new long[1 << tableBits];
+    tableEntries = new long[1 << tableBits];
+    stopSignal = new AtomicBoolean();
+    initMoveLists();
+
+    helpers = new ChessEngine[threadCount - 1];
+    for (int i = 0; i < helpers.length; i++) {
+      helpers[i] = new ChessEngine(this);
+    }
+    helperPool = (helpers.length > 0) ? new ForkJoinPool(helpers.length) : null;
+  }
+
+
+  /**
+   * Constructs a helper of 'main', sharing its table and stop signal.
+   */
+  private ChessEngine(ChessEngine main) {
+    tableMask = main.tableMask;
+    tableKeys = main.tableKeys;
+    tableEntries = main.tableEntries;
+    stopSignal = main.stopSignal;
+    helpers = new ChessEngine[0];
+    helperPool = null;
+    initMoveLists();
+  }
+
+
+  /**
+   * Searches for the best move of the side to move, deepening until the budget runs out.
+   *
+   * @see #findBestMove(ChessGame, int, long)
+   */
+  public ChessMove findBestMove(ChessGame game, long budgetMillis) {
+    return findBestMove(game, MAX_DEPTH, budgetMillis);
+  }
+
+
+  /**
+   * Searches for the best move of the side to move with iterative deepening: depth 1, 2, ...
+   * up to 'maxDepth', stopping once the time budget is spent. The result comes from the
+   * deepest iteration that finished; depth 1 always finishes, whatever the budget.
+   *
+   * @param game          game to search (not modified)
+   * @param maxDepth      deepest iteration to run, in plies (1 to MAX_DEPTH)
+   * @param budgetMillis  time budget in milliseconds, or NO_TIME_LIMIT to always reach 'maxDepth'
+   * @return              best move found, or null if the side to move has no legal move
+   * @throws IllegalStateException if a multi-threaded engine has been closed
+   */
+  public ChessMove findBestMove(ChessGame game, int maxDepth, long budgetMillis) {
+    if (maxDepth < 1 || maxDepth > MAX_DEPTH) {
+      throw new IllegalArgumentException("Search depth must be between 1 and " + MAX_DEPTH);
+    }
+    if (helperPool != null && helperPool.isShutdown()) {
+      throw new IllegalStateException("Engine has been closed");
+    }
+
+    startTime = System.nanoTime();
+    budgetNanos = toNanos(budgetMillis);
+    board = copyBoard(game.getBoard());
+    TeamColor turn = game.getTeamTurn();
+    nodeCount = 0;
+    lastScore = 0;
+    lastDepth = 0;
+
+    MoveList rootMoves = new MoveList();
+    ChessRuleBook.generateLegalMoves(board, turn, rootMoves);
+    if (rootMoves.size() <= 1) {
+      return (rootMoves.size() == 0) ? null : rootMoves.get(0);
+    }
+    ChessMove bookMove = findBookMove(game.getZobristKey(), rootMoves);
+    if (bookMove != null) {
+      return bookMove;
+    }
+
+    loadKeyStack(game.getPositionHistory());
+    stopSignal.set(false);
+    ForkJoinTask<?>[] helperTasks = new ForkJoinTask<?>[helpers.length];
+    for (int i = 0; i < helpers.length; i++) {
+      ChessEngine helper = helpers[i];
+      helper.prepare(this);
+      // Odd helpers start a ply deeper, so the threads spread over two depths at a time
+      int firstDepth = 1 + (i & 1);
+      helperTasks[i] = helperPool.submit(() -> helper.deepen(turn, firstDepth, maxDepth));
+    }
+
+    int bestMove = deepen(turn, 1, maxDepth);
+
+    stopSignal.set(true);
+    for (int i = 0; i < helpers.length; i++) {
+      helperTasks[i].join();
+      nodeCount += helpers[i].nodeCount;
+    }
+    return ChessMove.ofCode((bestMove != 0) ? bestMove : rootMoves.getCode(0));
+  }
+
+
+  /**
+   * Shuts down the helper threads of a multi-threaded engine; a single-threaded engine has
+   * none, and closing it changes nothing. A search still running is allowed to finish.
+   */
+  @Override
+  public void close() {
+    if (helperPool != null) {
+      helperPool.shutdown();
+    }
+  }
+
+
+  /**
+   * Iterative deepening from 'firstDepth' to 'maxDepth', until the time budget is spent or the
+   * stop signal is raised.
+   *
+   * @return  best move code of the deepest finished iteration, or 0 if none finished
+   */
+  private int deepen(TeamColor turn, int firstDepth, int maxDepth) {
+    for (int[] plyKillers : killers) {
+      plyKillers[0] = 0;
+      plyKillers[1] = 0;
+    }
+
+    int bestMove = 0;
+    aborted = false;
+    for (int depth = firstDepth; depth <= maxDepth; depth++) {
+      rootDepth = depth;
+      rootBestMove = 0;
+      int score = negamax(turn, depth, -INFINITY, INFINITY, 0);
+      if (aborted) {
+        break;
+      }
+      bestMove = rootBestMove;
+      lastScore = score;
+      lastDepth = depth;
+
+      // A found mate won't get any shorter, and the next iteration takes several times as long
+      if (Math.abs(score) > MATE_BOUND || System.nanoTime() - startTime > budgetNanos / 2) {
+        break;
+      }
+    }
+    return bestMove;
+  }
+
+
+  /**
+   * Readies a helper for the search 'main' is about to run: a copy of its board, key stack
+   * and time budget.
+   */
+  private void prepare(ChessEngine main) {
+    board = copyBoard(main.board);
+    startTime = main.startTime;
+    budgetNanos = main.budgetNanos;
+    nodeCount = 0;
+    if (keyStack.length < main.keyStack.length) {
+      keyStack = new long[main.keyStack.length];
+    }
+    System.arraycopy(main.keyStack, 0, keyStack, 0, main.keyCount);
+    keyCount = main.keyCount;
+  }
+
+
+  /**
+   * Sets the book to play from before searching; while a position is in the book, its most
+   * played legal move is returned without a search.
+   *
+   * @param openingBook book to consult, or null for none
+   */
+  public void setOpeningBook(OpeningBook openingBook) {
+    this.openingBook = openingBook;
+  }
+
+
+  /**
+   * @return  score of the last search in centipawns from the mover's point of view; mates
+   *          score beyond +-(MATE_SCORE - MAX_PLY)
+   */
+  public int getLastScore() {
+    return lastScore;
+  }
+
+
+  /**
+   * @return  depth of the last iteration the last search finished
+   */
+  public int getLastDepth() {
+    return lastDepth;
+  }
+
+
+  /**
+   * @return  number of positions the last search visited, over all its threads
+   */
+  public long getNodeCount() {
+    return nodeCount;
+  }
+
+
+  /**
+   * Forgets every transposition table entry, e.g. before starting a new game.
+   */
+  public void clear() {
+    Arrays.fill(tableKeys, 0);
+    Arrays.fill(tableEntries, 0);
+  }
+
+
+  /**
+   * @return  the most played book move for 'key' that is among the legal 'rootMoves', or null
+   */
+  private ChessMove findBookMove(long key, MoveList rootMoves) {
+    if (openingBook == null) {
+      return null;
+    }
+    for (long i = openingBook.findFirst(key); i != -1 && i < openingBook.size() && openingBook.keyAt(i) == key; i++) {
+      ChessMove move = openingBook.moveAt(i);
+      if (rootMoves.contains(move)) {
+        return move;
+      }
+    }
+    return null;
+  }
+
+
+  /**
+   * Alpha-beta search of the position on 'board' whose key is on top of the key stack.
+   *
+   * @return  score for 'turn', exact if strictly between alpha and beta, else a bound
+   */
+  private int negamax(TeamColor turn, int depth, int alpha, int beta, int ply) {
+    if (ply > 0 && (board.getHalfmoveClock() >= 100 || isRepetition())) {
+      return 0;
+    }
+
+    boolean inCheck = ChessRuleBook.isInCheck(board, turn);
+    if (inCheck && ply < 2 * rootDepth) {
+      // Check extension: don't let the horizon hide a mate
+      depth++;
+    }
+    if (depth <= 0 || ply >= MAX_PLY - 1) {
+      return quiescence(turn, alpha, beta, ply);
+    }
+    countNode();
+
+    long key = keyStack[keyCount - 1];
+    int index = (int) key & tableMask;
+    int tableMove = 0;
+    long tableEntry = tableEntries[index];
+    if ((tableKeys[index] ^ tableEntry) == key) {
+      int entry = (int) (tableEntry >>> 32);
+      tableMove = entry & 0xFFFF;
+      int score = scoreFromTable((int) tableEntry, ply);
+      int bound = entry >>> 24;
+      if (ply > 0 && (entry >>> 16 & 0xFF) >= depth
+              && (bound == EXACT || (bound == LOWER_BOUND && score >= beta) || (bound == UPPER_BOUND && score <= alpha))) {
+        return score;
+      }
+    }
+
+    MoveList moves = moveLists[ply];
+    moves.clear();
+    generatePseudoLegalMoves(turn, moves);
+    scoreMoves(moves, ply, tableMove);
+
+    TeamColor enemyColor = opponent(turn);
+    int originalAlpha = alpha;
+    int bestScore = -INFINITY;
+    int bestMove = 0;
+    int legalMoveCount = 0;
+
+    for (int i = 0; i < moves.size(); i++) {
+      int code = selectNext(moves, ply, i);
+      ChessMove move = ChessMove.ofCode(code);
+      int undo = board.pushMove(move);
+      if (ChessRuleBook.isInCheck(board, turn)) {
+        board.popMove();
+        continue;
+      }
+      legalMoveCount++;
+
+      pushKey(board.getPositionKey(enemyColor));
+      int score = -negamax(enemyColor, depth - 1, -beta, -alpha, ply + 1);
+      keyCount--;
+      board.popMove();
+      if (aborted) {
+        return 0;
+      }
+
+      if (score > bestScore) {
+        bestScore = score;
+        bestMove = code;
+        if (ply == 0) {
+          rootBestMove = code;
+        }
+      }
+      if (score > alpha) {
+        alpha = score;
+      }
+      if (alpha >= beta) {
+        if (ChessBoard.capturedPieceOf(undo) == null && !move.hasPromotionPiece()) {
+          addKiller(ply, code);
+        }
+        break;
+      }
+    }
+
+    if (legalMoveCount == 0) {
+      return inCheck ? -MATE_SCORE + ply : 0;
+    }
+
+    int bound = (bestScore <= originalAlpha) ? UPPER_BOUND : (bestScore >= beta) ? LOWER_BOUND : EXACT;
+    long entry = (long) (bestMove | Math.min(depth, 0xFF) << 16 | bound << 24) << 32
+            | (scoreToTable(bestScore, ply) & 0xFFFFFFFFL);
+    tableEntries[index] = entry;
+    tableKeys[index] = key ^ entry;
+    return bestScore;
+  }
+
+
+  /**
+   * Searches captures and promotions only, until the position is quiet, so that the static
+   * evaluation is never taken in the middle of an exchange. The side to move may always
+   * decline to capture (stand pat).
+   */
+  private int quiescence(TeamColor turn, int alpha, int beta, int ply) {
+    countNode();
+    int standPat = board.getEvaluation(turn);
+    if (standPat >= beta || ply >= MAX_PLY - 1) {
+      return standPat;
+    }
+    if (standPat > alpha) {
+      alpha = standPat;
+    }
+
+    MoveList moves = moveLists[ply];
+    moves.clear();
+    generatePseudoLegalMoves(turn, moves);
+    int tacticalCount = 0;
+    for (int i = 0; i < moves.size(); i++) {
+      int code = moves.getCode(i);
+      if (isTactical(code)) {
+        moves.setCode(tacticalCount++, code);
+      }
+    }
+    moves.truncate(tacticalCount);
+    scoreMoves(moves, ply, 0);
+
+    TeamColor enemyColor = opponent(turn);
+    int bestScore = standPat;
+    for (int i = 0; i < moves.size(); i++) {
+      ChessMove move = ChessMove.ofCode(selectNext(moves, ply, i));
+      board.pushMove(move);
+      if (ChessRuleBook.isInCheck(board, turn)) {
+        board.popMove();
+        continue;
+      }
+      int score = -quiescence(enemyColor, -beta, -alpha, ply + 1);
+      board.popMove();
+      if (aborted) {
+        return 0;
+      }
+
+      if (score > bestScore) {
+        bestScore = score;
+      }
+      if (score > alpha) {
+        alpha = score;
+      }
+      if (alpha >= beta) {
+        break;
+      }
+    }
+    return bestScore;
+  }
+
+
+  /**
+   * Appends every pseudo-legal move of 'turn'; king safety is tested when each is made.
+   */
+  private void generatePseudoLegalMoves(TeamColor turn, MoveList moves) {
+    PieceList pieceList = board.getPieceList(turn);
+    for (int i = 0; i < pieceList.size(); i++) {
+      PieceMovement.addPossibleMoves(board, pieceList.get(i), moves);
+    }
+  }
+
+
+  /**
+   * Gives every move an ordering score: the table move first, then captures and promotions
+   * by MVV-LVA, then the killers of this ply, then the quiet moves.
+   */
+  private void scoreMoves(MoveList moves, int ply, int tableMove) {
+    if (moveScores[ply].length < moves.size()) {
+      moveScores[ply] = new int[moves.size() * 2];
+    }
+    int[] scores = moveScores[ply];
+    int[] plyKillers = killers[ply];
+
+    for (int i = 0; i < moves.size(); i++) {
+      int code = moves.getCode(i);
+      if (code == tableMove) {
+        scores[i] = TABLE_MOVE_SCORE;
+      }
+      else if (isTactical(code)) {
+        ChessPiece attacker = board.getPiece(code & 0x3F);
+        ChessPiece victim = board.getPiece(code >>> 6 & 0x3F);
+        int victimValue = (victim != null) ? PIECE_VALUES[victim.getPieceType().ordinal()]
+                : (attacker.getPieceType() == PAWN && isDiagonal(code)) ? PIECE_VALUES[PAWN.ordinal()] : 0;
+        ChessPiece.PieceType promotion = ChessMove.ofCode(code).getPromotionPiece();
+        if (promotion != null) {
+          victimValue += PIECE_VALUES[promotion.ordinal()];
+        }
+        scores[i] = CAPTURE_SCORE + victimValue * 8 - PIECE_VALUES[attacker.getPieceType().ordinal()] / 8;
+      }
+      else if (code == plyKillers[0]) {
+        scores[i] = KILLER_SCORES[0];
+      }
+      else if (code == plyKillers[1]) {
+        scores[i] = KILLER_SCORES[1];
+      }
+      else {
+        scores[i] = 0;
+      }
+    }
+  }
+
+
+  /**
+   * Moves the best scored of the moves from 'index' on into 'index' (one step of a selection
+   * sort, so moves after a cutoff are never sorted).
+   *
+   * @return  code of the move now at 'index'
+   */
+  private int selectNext(MoveList moves, int ply, int index) {
+    int[] scores = moveScores[ply];
+    int best = index;
+    for (int i = index + 1; i < moves.size(); i++) {
+      if (scores[i] > scores[best]) {
+        best = i;
+      }
+    }
+    int code = moves.getCode(best);
+    if (best != index) {
+      moves.setCode(best, moves.getCode(index));
+      moves.setCode(index, code);
+      int score = scores[best];
+      scores[best] = scores[index];
+      scores[index] = score;
+    }
+    return code;
+  }
+
+
+  /**
+   * @return  if the move captures (en passant included) or promotes
+   */
+  private boolean isTactical(int code) {
+    if (code >>> 12 != 0 || board.getPiece(code >>> 6 & 0x3F) != null) {
+      return true;
+    }
+    return board.getPiece(code & 0x3F).getPieceType() == PAWN && isDiagonal(code);
+  }
+
+  private static boolean isDiagonal(int code) {
+    return (code & 7) != (code >>> 6 & 7);
+  }
+
+
+  private void addKiller(int ply, int code) {
+    int[] plyKillers = killers[ply];
+    if (plyKillers[0] != code) {
+      plyKillers[1] = plyKillers[0];
+      plyKillers[0] = code;
+    }
+  }
+
+
+  /**
+   * Counts a node and, every NODES_PER_TIME_CHECK nodes past depth 1, checks the clock and
+   * the stop signal.
+   */
+  private void countNode() {
+    if ((++nodeCount & (NODES_PER_TIME_CHECK - 1)) == 0 && rootDepth > 1
+            && (stopSignal.get() || System.nanoTime() - startTime >= budgetNanos)) {
+      aborted = true;
+    }
+  }
+
+
+  /**
+   * Returns if the position on top of the key stack occurred before since the last capture
+   * or pawn move. Inside the search a single repeat already counts as a draw, as the side
+   * that could avoid it would have done so.
+   */
+  private boolean isRepetition() {
+    long key = keyStack[keyCount - 1];
+    int oldest = Math.max(keyCount - 1 - board.getHalfmoveClock(), 0);
+    for (int i = keyCount - 3; i >= oldest; i -= 2) {
+      if (keyStack[i] == key) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+
+  /**
+   * @return  'millis' in nanoseconds, saturating at Long.MAX_VALUE (and 0 for a negative budget)
+   */
+  private static long toNanos(long millis) {
+    return (millis >= Long.MAX_VALUE / 1_000_000) ? Long.MAX_VALUE : Math.max(millis, 0) * 1_000_000;
+  }
+
+  private void initMoveLists() {
+    for (int ply = 0; ply < MAX_PLY; ply++) {
+      moveLists[ply] = new MoveList();
+    }
+  }
+
+  private void loadKeyStack(PositionHistory history) {
+    if (keyStack.length < history.size() + MAX_PLY) {
+      keyStack = new long[history.size() + MAX_PLY];
+    }
+    for (int i = 0; i < history.size(); i++) {
+      keyStack[i] = history.get(i);
+    }
+    keyCount = history.size();
+  }
+
+  private void pushKey(long key) {
+    keyStack[keyCount++] = key;
+  }
+
+
+  /**
+   * Mate scores are stored relative to the node rather than the root, so that an entry is
+   * valid at whatever ply the position is found again.
+   */
+  private static int scoreToTable(int score, int ply) {
+    return (score > MATE_BOUND) ? score + ply : (score < -MATE_BOUND) ? score - ply : score;
+  }
+
+  private static int scoreFromTable(int score, int ply) {
+    return (score > MATE_BOUND) ? score - ply : (score < -MATE_BOUND) ? score + ply : score;
+  }
+
+
+  private static ChessBoard copyBoard(ChessBoard original) {
+    try {
+      return original.clone();
+    }
+    catch (CloneNotSupportedException e) {
+      throw new IllegalStateException("Board could not be cloned", e);
+    }
+  }
+
+  private static TeamColor opponent(TeamColor color) {
+    return (color == TeamColor.WHITE) ? TeamColor.BLACK : TeamColor.WHITE;
+  }
+}
@@ -1,7 +1,11 @@
 package chess;
 
+import com.google.gson.annotations.JsonAdapter;
+
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Objects;
 
 /**
@@ -9,7 +13,11 @@ import java.util.Objects;
  * <p>
  * Note: You can add to this class, but you may not alter
  * signature of the existing methods.
+ * <p>
+ * Serialized by Gson in its compact FEN form (see ChessGameAdapter), so derived state such as
+ * the valid move list never ends up in stored games or LOAD_GAME messages.
  */
+@JsonAdapter(ChessGameAdapter.class)
 public class ChessGame {
 
   // Identifies the two possible teams
@@ -18,18 +26,34 @@ public class ChessGame {
     BLACK
   }
 
+  // Accepted forms of the castling, en passant, halfmove and fullmove FEN fields
+  private static final String[] FEN_FIELD_REGEX = {"-|K?Q?k?q?", "-|[a-h][36]", "\\d+", "\\d+"};
+
+  // Halfmove clock value at which either player may claim a draw (fifty moves each)
+  private static final int FIFTY_MOVE_RULE_PLIES = 100;
+
   private ChessBoard board;
   private TeamColor teamTurn;
+  private int fullmoveNumber;
+
+  // Position the history starts from, and every move played since
+  private String startFen;
+  private MoveHistory history;
 
-  private Collection<ChessMove> validMoves;
+  // Keys of the positions since the last capture or pawn move
+  private PositionHistory positionHistory;
+
+  // Derived from the position and looked up again on demand, so never serialized
+  private transient Collection<ChessMove> validMoves;
+
+  // Reused by the single-move and game-end checks, which would otherwise allocate on every call
+  private transient MoveList scratchMoves;
 
   /**
    * Constructs a ChessGame object.
    */
   public ChessGame() {
-    this.validMoves = new HashSet<>();
-    this.board = new ChessBoard();
-    this.teamTurn = TeamColor.WHITE;
+    this(startingBoard(), TeamColor.WHITE, 1);
   }
 
   /**
@@ -39,14 +63,118 @@ public class ChessGame {
    * @param teamTurn  team turn
    */
   public ChessGame(ChessBoard board, TeamColor teamTurn) {
+    this(copyOf(board), teamTurn, 1);
+  }
+
+  /**
+   * Constructs a ChessGame object that plays on 'board' itself rather than a copy.
+   *
+   * @param board           chess board, owned by the new game from now on
+   * @param teamTurn        team turn
+   * @param fullmoveNumber  number of the current full move, starting at 1
+   */
+  private ChessGame(ChessBoard board, TeamColor teamTurn, int fullmoveNumber) {
+    this.board = board;
+    this.teamTurn = teamTurn;
+    this.fullmoveNumber = fullmoveNumber;
+    this.validMoves = new HashSet<>();
+    resetHistory();
+  }
+
+  private static ChessBoard startingBoard() {
+    ChessBoard board = new ChessBoard();
+    board.resetBoard();
+    return board;
+  }
+
+  private static ChessBoard copyOf(ChessBoard board) {
     try {
-      this.board = board.clone();
+      return board.clone();
     }
     catch (CloneNotSupportedException e) {
       throw new RuntimeException(e);
     }
-    this.teamTurn = teamTurn;
-    populateAllValidMoves();
+  }
+
+
+  /**
+   * Builds a game from a FEN string, e.g.
+   * "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1".
+   * Only the piece placement and side to move are required; missing fields mean no castling
+   * rights, no en passant square, a halfmove clock of 0 and move number 1.
+   *
+   * @param fen FEN string
+   * @return    new game in that position
+   * @throws IllegalArgumentException if 'fen' is not valid FEN
+   */
+  public static ChessGame fromFen(String fen) {
+    String[] fields = fen.strip().split("\\s+");
+    if (fields.length < 2 || fields.length > 6) {
+      throw new IllegalArgumentException("FEN must have between 2 and 6 fields: " + fen);
+    }
+
+    TeamColor turn = switch (fields[1]) {
+      case "w" -> TeamColor.WHITE;
+      case "b" -> TeamColor.BLACK;
+      default -> throw new IllegalArgumentException("Bad FEN side to move: " + fields[1]);
+    };
+    for (int i = 2; i < fields.length; i++) {
+      if (!fields[i].matches(FEN_FIELD_REGEX[i - 2])) {
+        throw new IllegalArgumentException("Bad FEN field: " + fields[i]);
+      }
+    }
+
+    ChessBoard board = ChessBoard.fromFen(fields[0]);
+    board.setCastlingRights(0);
+    if (fields.length > 2) {
+      board.setCastlingRights(parseCastlingRights(fields[2]));
+    }
+    if (fields.length > 3 && !fields[3].equals("-")) {
+      board.setEnPassantSquare(new ChessPosition(fields[3]).toSquare());
+    }
+    if (fields.length > 4) {
+      board.setHalfmoveClock(Integer.parseInt(fields[4]));
+    }
+
+    int fullmoveNumber = (fields.length > 5) ? Math.max(1, Integer.parseInt(fields[5])) : 1;
+    return new ChessGame(board, turn, fullmoveNumber);
+  }
+
+
+  /**
+   * Formats this game as a FEN string.
+   *
+   * @return  FEN string of the current position
+   */
+  public final String toFen() {
+    ChessPosition enPassantPosition = board.getEnPassantPosition();
+    return board.toFen()
+            + ' ' + ((teamTurn == TeamColor.WHITE) ? 'w' : 'b')
+            + ' ' + formatCastlingRights(board.getCastlingRights())
+            + ' ' + ((enPassantPosition == null) ? "-" : enPassantPosition.toAlgebraic())
+            + ' ' + board.getHalfmoveClock()
+            + ' ' + fullmoveNumber;
+  }
+
+
+  private static int parseCastlingRights(String field) {
+    int rights = 0;
+    for (int castle = 0; castle < ChessConstants.CASTLING_CHARS.length; castle++) {
+      if (field.indexOf(ChessConstants.CASTLING_CHARS[castle]) != -1) {
+        rights |= ChessConstants.CASTLING_RIGHTS[castle];
+      }
+    }
+    return rights;
+  }
+
+  private static String formatCastlingRights(int rights) {
+    StringBuilder field = new StringBuilder();
+    for (int castle = 0; castle < ChessConstants.CASTLING_CHARS.length; castle++) {
+      if ((rights & ChessConstants.CASTLING_RIGHTS[castle]) != 0) {
+        field.append(ChessConstants.CASTLING_CHARS[castle]);
+      }
+    }
+    return (field.length() == 0) ? "-" : field.toString();
   }
 
 
@@ -55,12 +183,26 @@ public class ChessGame {
       if (this == o) return true;
       if (o == null || getClass() != o.getClass()) return false;
       ChessGame chessGame=(ChessGame) o;
-      return teamTurn == chessGame.teamTurn && Objects.equals(board, chessGame.board);
+      return getZobristKey() == chessGame.getZobristKey() && teamTurn == chessGame.teamTurn
+              && Objects.equals(board, chessGame.board);
   }
 
   @Override
   public int hashCode() {
-      return Objects.hash(teamTurn, board);
+      return Long.hashCode(getZobristKey());
+  }
+
+
+  /**
+   * Returns the Zobrist key of the current position: the board's incrementally maintained
+   * key with the side to move, the castling rights and any en passant file folded in.
+   * The en passant file only counts when a capture onto it is possible, so positions that
+   * allow the same moves hash the same.
+   *
+   * @return  64-bit hash of the position
+   */
+  public final long getZobristKey() {
+    return board.getPositionKey(teamTurn);
   }
 
   @Override
@@ -69,33 +211,62 @@ public class ChessGame {
   }
 
 
+  /**
+   * Sets whose turn it is. The position changes, so the move history starts over from here.
+   *
+   * @param team  team to move
+   */
   public void setTeamTurn(TeamColor team) {
-        teamTurn = team;
-    }
+    teamTurn = team;
+    resetHistory();
+  }
 
 
 
   /**
-   * Gets a valid moves for a piece at the given location
+   * Gets a valid moves for a piece at the given location.
+   * Candidates are tried by making and taking back each move on this game's board, so the
+   * board is briefly mutated: don't call this while another thread reads or moves on the same
+   * game (copy the game or synchronize instead).
    *
    * @param position the piece to get valid moves for
    * @return Set of valid moves for requested piece, or null if no piece at
    * startPosition
    */
   public Collection<ChessMove> validMoves(ChessPosition position) {
+    ChessPiece piece = board.getPiece(position);
+    if (piece == null || piece.getTeamColor() != teamTurn) {
       return ChessRuleBook.getValidMoves(board, position);
+    }
+
+    // Moves of the side to move come from the shared cache; pick out this piece's
+    populateAllValidMoves();
+    Collection<ChessMove> pieceMoves = new ArrayList<>();
+    for (ChessMove move : validMoves) {
+      if (move.getStartPosition().equals(position)) {
+        pieceMoves.add(move);
+      }
+    }
+    return pieceMoves;
   }
 
 
   /**
-   * Populates the validMoves collection with all the validMoves for the given board
+   * Populates the validMoves collection with all the validMoves for the given board.
+   * Results are looked up in (and added to) the shared ValidMoveCache by position key.
    */
   public void populateAllValidMoves() {
-    resetValidMoves();
-    Collection<ChessPosition> friendlyPositions = board.iterateForFriendlyPieces(teamTurn);
-    for (ChessPosition position : friendlyPositions) {
-      validMoves.addAll(validMoves(position));
-    }
+    validMoves = ValidMoveCache.getShared().get(getZobristKey(), this::generateAllValidMoves);
+  }
+
+
+  /**
+   * @return  every legal move of the side to move, generated from scratch
+   */
+  private Collection<ChessMove> generateAllValidMoves() {
+    MoveList allValidMoves = new MoveList();
+    ChessRuleBook.generateLegalMoves(board, teamTurn, allValidMoves);
+    return allValidMoves.asSet();
   }
 
 
@@ -109,21 +280,141 @@ public class ChessGame {
 
   /**
    * Makes a move in a chess game if it is valid.
+   * Only the moving piece's moves are generated, and king safety is tested for 'move' alone.
    *
    * @param move chess move to update 'board' attribute with
-   * @throws InvalidMoveException if move is invalid
+   * @throws InvalidMoveException if move is invalid or null
    */
   public void makeMove(ChessMove move) throws InvalidMoveException {
-    populateAllValidMoves();
-    if (validMoves.contains(move)) {
-      board.makeMove(move);
-      switchTurn();
+    if (isLegalMove(move)) {
+      applyMove(move);
     } else {
       throw new InvalidMoveException();
     }
   }
 
 
+  /**
+   * Returns if 'move' is legal for the side to move, without allocating once the game's scratch
+   * list exists. The board is briefly mutated but always restored.
+   *
+   * @param move  move to check (null is never legal)
+   * @return      if makeMove would accept 'move'
+   */
+  boolean isLegalMove(ChessMove move) {
+    if (move == null) {
+      return false;
+    }
+    ChessPiece movingPiece = board.getPiece(move.getStartPosition());
+    return movingPiece != null && movingPiece.getTeamColor() == teamTurn
+            && ChessRuleBook.isLegalMove(board, move, scratchMoves());
+  }
+
+
+  /**
+   * Plays a move already known to be legal and records it in the history.
+   *
+   * @param move  legal move of the side to move
+   */
+  void applyMove(ChessMove move) {
+    int undo = board.makeUncheckedMove(move);
+    history.add(move, ChessBoard.capturedPieceOf(undo));
+    if (teamTurn == TeamColor.BLACK) {
+      fullmoveNumber++;
+    }
+    switchTurn();
+
+    if (board.getHalfmoveClock() == 0) {
+      positionHistory.clear();
+    }
+    positionHistory.add(getZobristKey());
+  }
+
+
+  /**
+   * @return  this game's scratch move list, created on first use (transient, so not restored
+   *          by deserialization)
+   */
+  private MoveList scratchMoves() {
+    if (scratchMoves == null) {
+      scratchMoves = new MoveList();
+    }
+    return scratchMoves;
+  }
+
+
+  /**
+   * Starts an empty move history from the current position.
+   */
+  private void resetHistory() {
+    startFen = toFen();
+    history = new MoveHistory();
+    positionHistory = new PositionHistory();
+    positionHistory.add(getZobristKey());
+  }
+
+
+  /**
+   * @return  FEN of the position the move history starts from
+   */
+  public String getStartFen() {
+    return startFen;
+  }
+
+
+  /**
+   * @return  every move played since getStartFen(), oldest first
+   */
+  public List<ChessMove> getMoveHistory() {
+    List<ChessMove> moves = new ArrayList<>(history.size());
+    for (int ply = 0; ply < history.size(); ply++) {
+      moves.add(history.getMove(ply));
+    }
+    return moves;
+  }
+
+
+  /**
+   * @return  the move history in UCI notation (e.g. "e2e4")
+   */
+  public List<String> getUciHistory() {
+    List<String> uciMoves = new ArrayList<>(history.size());
+    for (int ply = 0; ply < history.size(); ply++) {
+      uciMoves.add(history.getMove(ply).toUci());
+    }
+    return uciMoves;
+  }
+
+
+  /**
+   * Renders the move history in SAN (e.g. "Nf3") by replaying it from the start position.
+   *
+   * @return  the move history in standard algebraic notation
+   */
+  public List<String> getSanHistory() {
+    ChessGame replay = fromFen(startFen);
+    List<String> sanMoves = new ArrayList<>(history.size());
+    for (int ply = 0; ply < history.size(); ply++) {
+      ChessMove move = history.getMove(ply);
+      sanMoves.add(ChessNotation.toSan(replay.board, move));
+      replay.applyMove(move);
+    }
+    return sanMoves;
+  }
+
+
+  /**
+   * @param ply   index of a move in the history
+   * @return      the piece captured by that move, or null if it captured nothing
+   */
+  public ChessPiece getCapturedPiece(int ply) {
+    if (ply < 0 || ply >= history.size()) {
+      throw new IndexOutOfBoundsException("No move at ply " + ply);
+    }
+    return history.getCapturedPiece(ply);
+  }
+
+
   /**
    * Switches the teamTurn to the next team
    */
@@ -143,6 +434,45 @@ public class ChessGame {
   }
 
 
+  /**
+   * Determines if either player may claim a draw under the fifty-move rule: fifty moves by
+   * each side without a capture or a pawn move.
+   *
+   * @return True if the halfmove clock has reached 100
+   */
+  public boolean isFiftyMoveRuleDraw() {
+    return board.getHalfmoveClock() >= FIFTY_MOVE_RULE_PLIES;
+  }
+
+
+  /**
+   * Determines if the current position has occurred three times since the last capture or
+   * pawn move (with the same side to move, castling rights and en passant options).
+   * Positions before the start of the move history are not known.
+   *
+   * @return True if the current position is a threefold repetition
+   */
+  public boolean isThreefoldRepetition() {
+    return positionHistory.countLatest() >= 3;
+  }
+
+
+  /**
+   * @return  keys of the positions reached since the last capture or pawn move, for the engine
+   */
+  PositionHistory getPositionHistory() {
+    return positionHistory;
+  }
+
+
+  /**
+   * @return  number of the current full move, starting at 1 and incremented after black moves
+   */
+  public int getFullmoveNumber() {
+    return fullmoveNumber;
+  }
+
+
   /**
    * Determines if the given team is in checkmate
    *
@@ -150,7 +480,7 @@ public class ChessGame {
    * @return True if the specified team is in checkmate
    */
   public boolean isInCheckmate(TeamColor teamColor) {
-      return ChessRuleBook.isInCheckMate(board, teamColor);
+      return ChessRuleBook.isInCheckMate(board, teamColor, scratchMoves());
   }
 
 
@@ -162,17 +492,19 @@ public class ChessGame {
    * @return True if the specified team is in stalemate, otherwise false
    */
   public boolean isInStalemate(TeamColor teamColor) {
-      return ChessRuleBook.isInStaleMate(board, teamColor);
+      return ChessRuleBook.isInStaleMate(board, teamColor, scratchMoves());
   }
 
 
   /**
-   * Sets this game's chessboard with a given board
+   * Sets this game's chessboard with a given board.
+   * The move history starts over from the new position.
    *
    * @param board the new board to use
    */
   public void setBoard(ChessBoard board) {
       this.board = board;
+      resetHistory();
   }
 
 
@@ -0,0 +1,96 @@
+package chess;
+
+import com.google.gson.*;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Gson adapter that stores a ChessGame as {"fen": "..."} instead of its full object graph.
+ * Once moves have been played the history is added as the FEN it starts from and the moves
+ * in the two-byte form of ChessCodec.encodeMoves, Base64 encoded:
+ * {"fen": "...", "start": "...", "moves": "..."}.
+ * <p>
+ * Games written before this adapter existed hold the board matrix and team turn as plain
+ * fields; those are still read, so existing database rows keep loading. Null games are
+ * handled by Gson (JsonAdapter.nullSafe).
+ */
+final class ChessGameAdapter extends TypeAdapter<ChessGame> {
+
+  private static final String FEN_FIELD = "fen";
+  private static final String START_FIELD = "start";
+  private static final String MOVES_FIELD = "moves";
+
+  // Plain Gson for the legacy board matrix; ChessBoard has no adapter of its own
+  private static final Gson LEGACY_GSON = new Gson();
+
+
+  @Override
+  public void write(JsonWriter out, ChessGame game) throws IOException {
+    out.beginObject();
+    out.name(FEN_FIELD).value(game.toFen());
+    List<ChessMove> moveHistory = game.getMoveHistory();
+    if (!moveHistory.isEmpty()) {
+      out.name(START_FIELD).value(game.getStartFen());
+      out.name(MOVES_FIELD).value(Base64.getEncoder().encodeToString(ChessCodec.encodeMoves(moveHistory)));
+    }
+    out.endObject();
+  }
+
+
+  @Override
+  public ChessGame read(JsonReader in) throws IOException {
+    JsonObject object = JsonParser.parseReader(in).getAsJsonObject();
+    if (!object.has(FEN_FIELD)) {
+      return readLegacy(object);
+    }
+    try {
+      String fen = object.get(FEN_FIELD).getAsString();
+      if (!object.has(MOVES_FIELD)) {
+        return ChessGame.fromFen(fen);
+      }
+      return readWithHistory(object, fen);
+    }
+    catch (IllegalArgumentException e) {
+      throw new JsonParseException(e.getMessage(), e);
+    }
+  }
+
+
+  /**
+   * Replays the stored moves from the start position, which must arrive at the stored FEN.
+   * The moves were validated when they were played, so they are not validated again.
+   */
+  private static ChessGame readWithHistory(JsonObject object, String fen) {
+    if (!object.has(START_FIELD)) {
+      throw new JsonParseException("ChessGame JSON has moves but no start position");
+    }
+    ChessGame game = ChessGame.fromFen(object.get(START_FIELD).getAsString());
+    for (ChessMove move : ChessCodec.decodeMoves(Base64.getDecoder().decode(object.get(MOVES_FIELD).getAsString()))) {
+      if (game.getBoard().getPiece(move.getStartPosition()) == null) {
+        throw new JsonParseException("Move history does not fit its start position");
+      }
+      game.applyMove(move);
+    }
+    if (!game.toFen().equals(ChessGame.fromFen(fen).toFen())) {
+      throw new JsonParseException("Move history does not lead to the stored position");
+    }
+    return game;
+  }
+
+
+  /**
+   * Reads the pre-FEN form: {"board": {"board": [[...]]}, "teamTurn": "WHITE", "validMoves": [...]}.
+   */
+  private static ChessGame readLegacy(JsonObject object) {
+    if (!object.has("board") || !object.has("teamTurn")) {
+      throw new JsonParseException("ChessGame JSON has neither a FEN nor a board");
+    }
+    ChessBoard board = LEGACY_GSON.fromJson(object.get("board"), ChessBoard.class);
+    ChessGame.TeamColor turn = ChessGame.TeamColor.valueOf(object.get("teamTurn").getAsString());
+    return new ChessGame(board, turn);
+  }
+}
@@ -12,6 +12,39 @@ public class ChessMove {
 
     private static final String MOVE_REGEX = "([a-h][1-8][a-h][1-8])(=[QRNB])?";
 
+    private static final int SQUARE_COUNT = ChessConstants.BOARD_SIZE * ChessConstants.BOARD_SIZE;
+    private static final ChessPiece.PieceType[] PROMOTION_CODES = {null, ChessPiece.PieceType.QUEEN,
+            ChessPiece.PieceType.ROOK, ChessPiece.PieceType.BISHOP, ChessPiece.PieceType.KNIGHT};
+
+    // Bit layout of encode()
+    private static final int END_SHIFT = 6;
+    private static final int PROMOTION_SHIFT = 12;
+    private static final int SQUARE_MASK = 0x3F;
+
+    // Shared instances indexed by start square, end square and promotion code (see tableIndex)
+    private static final ChessMove[] MOVE_TABLE = new ChessMove[SQUARE_COUNT * SQUARE_COUNT * PROMOTION_CODES.length];
+
+    static {
+        for (int start = 0; start < SQUARE_COUNT; start++) {
+            for (int end = 0; end < SQUARE_COUNT; end++) {
+                MOVE_TABLE[tableIndex(start, end, 0)] = new ChessMove(ChessPosition.ofSquare(start), ChessPosition.ofSquare(end), null);
+            }
+        }
+
+        // Promotions only happen on a one-row pawn step onto the last row
+        for (int col = 1; col <= ChessConstants.BOARD_SIZE; col++) {
+            for (int offset = -1; offset <= 1; offset++) {
+                if (col + offset < 1 || col + offset > ChessConstants.BOARD_SIZE) {
+                    continue;
+                }
+                for (int code = 1; code < PROMOTION_CODES.length; code++) {
+                    addPromotionMove(ChessPosition.of(7, col), ChessPosition.of(8, col + offset), code);
+                    addPromotionMove(ChessPosition.of(2, col), ChessPosition.of(1, col + offset), code);
+                }
+            }
+        }
+    }
+
     private final ChessPosition startPosition;
     private final ChessPosition endPosition;
     private final ChessPiece.PieceType promotionPiece;
@@ -52,7 +85,7 @@ public class ChessMove {
         else {
             String startPositionStr = chessMoveStr.substring(0, 2);
             String endPositionStr = chessMoveStr.substring(2, 4);
-            char promotionPieceChar = chessMoveStr.length() >= 6 ? chessMoveStr.charAt(6) : '0';
+            char promotionPieceChar = chessMoveStr.length() >= 6 ? Character.toLowerCase(chessMoveStr.charAt(5)) : '0';
 
 
             this.startPosition = new ChessPosition(startPositionStr);
@@ -93,6 +126,154 @@ public class ChessMove {
     }
 
 
+    /**
+     * Returns the shared instance of a move when both squares are on the board (and any
+     * promotion is a pawn step onto the last row), or a new object otherwise.
+     *
+     * @param startPosition     desired start position
+     * @param endPosition       desired end position
+     * @param promotionPiece    desired promotion piece (null for none)
+     * @return                  ChessMove for the given attributes
+     */
+    public static ChessMove of(ChessPosition startPosition, ChessPosition endPosition, ChessPiece.PieceType promotionPiece) {
+        int code = promotionCode(promotionPiece);
+        if (code != -1 && startPosition.positionIsWithinBounds() && endPosition.positionIsWithinBounds()) {
+            ChessMove move = MOVE_TABLE[tableIndex(startPosition.toSquare(), endPosition.toSquare(), code)];
+            if (move != null) {
+                return move;
+            }
+        }
+        return new ChessMove(startPosition, endPosition, promotionPiece);
+    }
+
+
+    /**
+     * Returns the shared instance of a move without a promotion piece.
+     *
+     * @param startPosition     desired start position
+     * @param endPosition       desired end position
+     * @return                  ChessMove for the given positions
+     */
+    public static ChessMove of(ChessPosition startPosition, ChessPosition endPosition) {
+        return of(startPosition, endPosition, null);
+    }
+
+
+    /**
+     * Returns the shared instance of a move given by its end offsets.
+     *
+     * @param startPosition desired start position
+     * @param x             row offset of the end position
+     * @param y             column offset of the end position
+     * @param piece         desired promotion piece (null for none)
+     * @return              ChessMove for the given attributes
+     */
+    public static ChessMove of(ChessPosition startPosition, int x, int y, ChessPiece.PieceType piece) {
+        return of(startPosition, startPosition.getRelativePosition(x, y), piece);
+    }
+
+
+    /**
+     * Returns the shared instance of an on-board move given by square indices.
+     *
+     * @param startSquare       start square, (row - 1) * 8 + (col - 1)
+     * @param endSquare         end square
+     * @param promotionPiece    desired promotion piece (null for none)
+     * @return                  ChessMove for the given attributes
+     */
+    static ChessMove ofSquares(int startSquare, int endSquare, ChessPiece.PieceType promotionPiece) {
+        int code = promotionCode(promotionPiece);
+        ChessMove move = (code != -1) ? MOVE_TABLE[tableIndex(startSquare, endSquare, code)] : null;
+        return (move != null) ? move : new ChessMove(ChessPosition.ofSquare(startSquare), ChessPosition.ofSquare(endSquare), promotionPiece);
+    }
+
+
+    /**
+     * Packs a move given by square indices into the encode() layout without any checks.
+     *
+     * @param startSquare   start square index
+     * @param endSquare     end square index
+     * @param promotionCode 0 for none, else 1-4 (queen, rook, bishop, knight)
+     * @return              move code, as encode() would return it
+     */
+    static int codeOf(int startSquare, int endSquare, int promotionCode) {
+        return startSquare | endSquare << END_SHIFT | promotionCode << PROMOTION_SHIFT;
+    }
+
+
+    /**
+     * Looks up the shared ChessMove for a code from codeOf. Unlike decode() it never builds a
+     * new move, so only codes with a shared instance are accepted.
+     *
+     * @param code  move code of an on-board move or a one-row pawn promotion
+     * @return      shared ChessMove for 'code'
+     * @throws IllegalArgumentException if 'code' has no shared move
+     */
+    static ChessMove ofCode(int code) {
+        ChessMove move = (code >= 0 && code < MOVE_TABLE.length) ? MOVE_TABLE[code] : null;
+        if (move == null) {
+            throw new IllegalArgumentException("Bad move code: " + code);
+        }
+        return move;
+    }
+
+
+    /**
+     * Decodes a move packed by encode().
+     *
+     * @param code  16-bit move code
+     * @return      ChessMove for 'code'
+     * @throws IllegalArgumentException if 'code' is not a valid move code
+     */
+    public static ChessMove decode(short code) {
+        int promotion = (code >>> PROMOTION_SHIFT) & 0xF;
+        if (code < 0 || promotion >= PROMOTION_CODES.length) {
+            throw new IllegalArgumentException("Bad move code: " + code);
+        }
+        return ofSquares(code & SQUARE_MASK, (code >>> END_SHIFT) & SQUARE_MASK, PROMOTION_CODES[promotion]);
+    }
+
+
+    /**
+     * Packs this move into 16 bits: start square in bits 0-5, end square in bits 6-11 and
+     * promotion piece in bits 12-14 (0 none, 1 queen, 2 rook, 3 bishop, 4 knight).
+     * Squares are indexed (row - 1) * 8 + (col - 1).
+     *
+     * @return  16-bit move code, decoded again by decode()
+     * @throws IllegalStateException if the move is off the board or promotes to a king or pawn
+     */
+    public short encode() {
+        int code = promotionCode(promotionPiece);
+        if (code == -1 || !moveIsWithinBounds()) {
+            throw new IllegalStateException("Move cannot be encoded: " + this);
+        }
+        return (short) (startPosition.toSquare() | endPosition.toSquare() << END_SHIFT | code << PROMOTION_SHIFT);
+    }
+
+
+    private static void addPromotionMove(ChessPosition startPosition, ChessPosition endPosition, int code) {
+        MOVE_TABLE[tableIndex(startPosition.toSquare(), endPosition.toSquare(), code)] =
+                new ChessMove(startPosition, endPosition, PROMOTION_CODES[code]);
+    }
+
+    // Same as codeOf, so MOVE_TABLE can be indexed by move code
+    private static int tableIndex(int startSquare, int endSquare, int promotionCode) {
+        return (promotionCode * SQUARE_COUNT + endSquare) * SQUARE_COUNT + startSquare;
+    }
+
+    /**
+     * @return  index of 'type' in PROMOTION_CODES, or -1 if it can't be promoted to
+     */
+    private static int promotionCode(ChessPiece.PieceType type) {
+        for (int code = 0; code < PROMOTION_CODES.length; code++) {
+            if (PROMOTION_CODES[code] == type) {
+                return code;
+            }
+        }
+        return -1;
+    }
+
+
     /**
      * @param o other ChessMove object
      * @return  if both objects' attributes are equal
@@ -145,6 +326,15 @@ public class ChessMove {
         return promotionPiece != null;
     }
 
+    /**
+     * @return  this move in UCI long algebraic notation (e.g. "e2e4", "e7e8q")
+     */
+    public String toUci() {
+        String uci = startPosition.toAlgebraic() + endPosition.toAlgebraic();
+        return hasPromotionPiece() ? uci + promotionPiece.getPieceChar() : uci;
+    }
+
+
     /**
      * @return string representation of ChessMove object
      */
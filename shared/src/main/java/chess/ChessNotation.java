@@ -0,0 +1,196 @@
+package chess;
+
+import java.util.regex.Matcher;
+
+import static chess.ChessGame.TeamColor;
+import static chess.ChessPiece.PieceType.*;
+
+/**
+ * Renders and parses moves in standard algebraic notation (SAN), e.g. "Nbd7", "exd5", "e8=Q+", "O-O".
+ * UCI notation needs no board and lives on ChessMove (toUci).
+ */
+public interface ChessNotation {
+
+  /**
+   * Renders a legal move in SAN. The piece letter, disambiguation, capture marker and
+   * check/checkmate suffix all depend on the position, so the board the move is played
+   * from is needed; it is briefly mutated but always restored before returning.
+   *
+   * @param board board before 'move' is made
+   * @param move  legal move on 'board'
+   * @return      SAN of 'move'
+   * @throws IllegalArgumentException if there is no piece to move
+   */
+  static String toSan(ChessBoard board, ChessMove move) {
+    ChessPosition startPosition = move.getStartPosition();
+    ChessPosition endPosition = move.getEndPosition();
+    ChessPiece piece = board.getPiece(startPosition);
+    if (piece == null) {
+      throw new IllegalArgumentException("No piece to move for " + move.toUci());
+    }
+
+    StringBuilder san = new StringBuilder();
+    int colDifference = endPosition.getColumn() - startPosition.getColumn();
+    if (piece.getPieceType() == KING && Math.abs(colDifference) == 2) {
+      san.append((colDifference > 0) ? "O-O" : "O-O-O");
+    }
+    else {
+      // A pawn changing file always captures, including en passant onto an empty square
+      boolean isCapture = board.getPiece(endPosition) != null || (piece.getPieceType() == PAWN && colDifference != 0);
+      if (piece.getPieceType() == PAWN) {
+        if (isCapture) {
+          san.append(startPosition.toAlgebraic().charAt(0));
+        }
+      }
+      else {
+        san.append(Character.toUpperCase(piece.getPieceType().getPieceChar()));
+        san.append(disambiguation(board, move, piece));
+      }
+      if (isCapture) {
+        san.append('x');
+      }
+      san.append(endPosition.toAlgebraic());
+      if (move.hasPromotionPiece()) {
+        san.append('=').append(Character.toUpperCase(move.getPromotionPiece().getPieceChar()));
+      }
+    }
+
+    san.append(checkSuffix(board, move, piece.getTeamColor()));
+    return san.toString();
+  }
+
+
+  /**
+   * Resolves a move in SAN against the legal moves of the side to move. Check, mate and
+   * annotation suffixes ("+", "#", "!", "?") are ignored, castling may be written with zeros,
+   * and the "=" before a promotion piece is optional.
+   *
+   * @param board board the move is played on (briefly mutated, always restored)
+   * @param turn  team to move
+   * @param san   move in SAN, e.g. "Nbd7", "exd5", "e8=Q+", "O-O"
+   * @return      the legal move 'san' names
+   * @throws IllegalArgumentException if 'san' is malformed, illegal or ambiguous
+   */
+  static ChessMove fromSan(ChessBoard board, TeamColor turn, String san) {
+    int length = san.length();
+    while (length > 0 && "+#!?".indexOf(san.charAt(length - 1)) != -1) {
+      length--;
+    }
+    String text = san.substring(0, length).replace('0', 'O');
+
+    ChessPiece.PieceType type;
+    int target;
+    int fromCol = 0;
+    int fromRow = 0;
+    ChessPiece.PieceType promotion = null;
+    int castlingColDifference = 0;
+    if (text.equals("O-O") || text.equals("O-O-O")) {
+      type = KING;
+      target = -1;
+      castlingColDifference = text.equals("O-O") ? 2 : -2;
+    }
+    else {
+      Matcher matcher = ChessConstants.SAN_PATTERN.matcher(text);
+      if (!matcher.matches()) {
+        throw new IllegalArgumentException("Malformed SAN: " + san);
+      }
+      type = (matcher.group(1) == null) ? PAWN : ChessPiece.PieceType.ofChar(matcher.group(1).charAt(0));
+      fromCol = (matcher.group(2) == null) ? 0 : matcher.group(2).charAt(0) - 'a' + 1;
+      fromRow = (matcher.group(3) == null) ? 0 : matcher.group(3).charAt(0) - '1' + 1;
+      String square = matcher.group(4);
+      target = (square.charAt(1) - '1') * 8 + (square.charAt(0) - 'a');
+      promotion = (matcher.group(5) == null) ? null : ChessPiece.PieceType.ofChar(matcher.group(5).charAt(0));
+    }
+
+    // Only pieces of the named type are generated, and only matching moves are tested for legality
+    MoveList candidates = new MoveList();
+    PieceList pieceList = board.getPieceList(turn);
+    for (int i = 0; i < pieceList.size(); i++) {
+      int square = pieceList.get(i);
+      if (board.getPiece(square).getPieceType() == type) {
+        PieceMovement.addPossibleMoves(board, square, candidates);
+      }
+    }
+
+    ChessMove match = null;
+    for (int i = 0; i < candidates.size(); i++) {
+      ChessMove move = candidates.get(i);
+      ChessPosition start = move.getStartPosition();
+      boolean matches = (castlingColDifference != 0)
+              ? move.getEndPosition().getColumn() - start.getColumn() == castlingColDifference
+              : move.getEndPosition().toSquare() == target
+                      && move.getPromotionPiece() == promotion
+                      && (fromCol == 0 || start.getColumn() == fromCol)
+                      && (fromRow == 0 || start.getRow() == fromRow);
+      if (matches && !ChessRuleBook.leavesKingInCheck(board, move, turn)) {
+        if (match != null) {
+          throw new IllegalArgumentException("Ambiguous SAN: " + san);
+        }
+        match = move;
+      }
+    }
+
+    if (match == null) {
+      throw new IllegalArgumentException("Illegal SAN for " + turn + ": " + san);
+    }
+    return match;
+  }
+
+
+
+  /**
+   * @return  the file, rank or square of the start position when another piece of the same
+   *          type and color could also legally move to the end position, otherwise ""
+   */
+  private static String disambiguation(ChessBoard board, ChessMove move, ChessPiece piece) {
+    ChessPosition startPosition = move.getStartPosition();
+    boolean isAmbiguous = false;
+    boolean sharesFile = false;
+    boolean sharesRank = false;
+
+    for (ChessPosition position : board.iterateForFriendlyPieces(piece.getTeamColor())) {
+      if (position.equals(startPosition) || !piece.equals(board.getPiece(position))) {
+        continue;
+      }
+      for (ChessMove otherMove : ChessRuleBook.getValidMoves(board, position)) {
+        if (otherMove.getEndPosition().equals(move.getEndPosition())) {
+          isAmbiguous = true;
+          sharesFile |= position.getColumn() == startPosition.getColumn();
+          sharesRank |= position.getRow() == startPosition.getRow();
+          break;
+        }
+      }
+    }
+
+    String square = startPosition.toAlgebraic();
+    if (!isAmbiguous) {
+      return "";
+    }
+    else if (!sharesFile) {
+      return square.substring(0, 1);
+    }
+    else if (!sharesRank) {
+      return square.substring(1);
+    }
+    return square;
+  }
+
+
+  /**
+   * @return  "#" if 'move' checkmates, "+" if it checks, otherwise ""
+   */
+  private static String checkSuffix(ChessBoard board, ChessMove move, TeamColor moverColor) {
+    TeamColor opponentColor = (moverColor == TeamColor.WHITE) ? TeamColor.BLACK : TeamColor.WHITE;
+    board.pushMove(move);
+    try {
+      if (!ChessRuleBook.isInCheck(board, opponentColor)) {
+        return "";
+      }
+      return ChessRuleBook.hasAnyLegalMove(board, opponentColor) ? "+" : "#";
+    }
+    finally {
+      board.popMove();
+    }
+  }
+
+}
@@ -15,6 +15,17 @@ import static chess.ChessGame.TeamColor.*;
  */
 public class ChessPiece implements Cloneable {
 
+  // One shared instance per color and type, indexed [color.ordinal()][type.ordinal()]
+  private static final ChessPiece[][] PIECES = new ChessPiece[ChessGame.TeamColor.values().length][PieceType.values().length];
+
+  static {
+    for (ChessGame.TeamColor color : ChessGame.TeamColor.values()) {
+      for (PieceType type : PieceType.values()) {
+        PIECES[color.ordinal()][type.ordinal()] = new ChessPiece(color, type);
+      }
+    }
+  }
+
   private final ChessGame.TeamColor pieceColor;
   private final ChessPiece.PieceType pieceType;
 
@@ -30,6 +41,43 @@ public class ChessPiece implements Cloneable {
   }
 
 
+  /**
+   * Returns the shared instance for a color and type. Pieces are immutable, so boards can
+   * hold these instead of allocating a new piece for every placement.
+   *
+   * @param pieceColor The color of the piece
+   * @param type       The piece type
+   * @return           canonical ChessPiece for 'pieceColor' and 'type'
+   */
+  public static ChessPiece of(ChessGame.TeamColor pieceColor, PieceType type) {
+    return PIECES[pieceColor.ordinal()][type.ordinal()];
+  }
+
+
+  /**
+   * Returns the shared instance for a 4-bit code produced by toCode().
+   *
+   * @param code  color in bit 3, type ordinal in bits 0-2
+   * @return      canonical ChessPiece for 'code'
+   * @throws IllegalArgumentException if 'code' is not a piece code
+   */
+  static ChessPiece ofCode(int code) {
+    int typeOrdinal = code & 0x7;
+    if (code < 0 || code > 0xF || typeOrdinal >= PieceType.values().length) {
+      throw new IllegalArgumentException("Bad piece code: " + code);
+    }
+    return PIECES[code >>> 3][typeOrdinal];
+  }
+
+
+  /**
+   * @return  4-bit code of this piece: color in bit 3, type ordinal in bits 0-2
+   */
+  int toCode() {
+    return pieceColor.ordinal() << 3 | pieceType.ordinal();
+  }
+
+
   /**
    * @return string representation of piece
    */
@@ -85,6 +133,20 @@ public class ChessPiece implements Cloneable {
     public char getPieceChar() {
       return c;
     }
+
+    /**
+     * @param c piece letter in either case, e.g. 'N' or 'n'
+     * @return  the type it stands for
+     * @throws IllegalArgumentException if 'c' is not a piece letter
+     */
+    static PieceType ofChar(char c) {
+      for (PieceType type : values()) {
+        if (type.c == Character.toLowerCase(c)) {
+          return type;
+        }
+      }
+      throw new IllegalArgumentException("Unknown piece letter: " + c);
+    }
   }
 
 
@@ -10,6 +10,17 @@ import java.util.Objects;
  */
 public class ChessPosition {
 
+    // One shared instance per on-board square, indexed [row - 1][col - 1]
+    private static final ChessPosition[][] POSITIONS = new ChessPosition[ChessConstants.BOARD_SIZE][ChessConstants.BOARD_SIZE];
+
+    static {
+        for (int i = 0; i < ChessConstants.BOARD_SIZE; i++) {
+            for (int j = 0; j < ChessConstants.BOARD_SIZE; j++) {
+                POSITIONS[i][j] = new ChessPosition(i + 1, j + 1);
+            }
+        }
+    }
+
     private final int row;
     private final int col;
 
@@ -40,6 +51,39 @@ public class ChessPosition {
     }
 
 
+    /**
+     * Returns the shared instance for an on-board square, or a new object for
+     * coordinates off the board.
+     *
+     * @param row   desired row position
+     * @param col   desired col position
+     * @return      ChessPosition for ('row', 'col')
+     */
+    public static ChessPosition of(int row, int col) {
+        if (0 < row && row <= ChessConstants.BOARD_SIZE && 0 < col && col <= ChessConstants.BOARD_SIZE) {
+            return POSITIONS[row - 1][col - 1];
+        }
+        return new ChessPosition(row, col);
+    }
+
+
+    /**
+     * @param square    square index, (row - 1) * 8 + (col - 1)
+     * @return          shared ChessPosition for 'square'
+     */
+    static ChessPosition ofSquare(int square) {
+        return POSITIONS[square / ChessConstants.BOARD_SIZE][square % ChessConstants.BOARD_SIZE];
+    }
+
+
+    /**
+     * @return  square index of this position, (row - 1) * 8 + (col - 1)
+     */
+    int toSquare() {
+        return (row - 1) * ChessConstants.BOARD_SIZE + (col - 1);
+    }
+
+
     /**
      * @param o other ChessPosition object
      * @return if their attributes are equal
@@ -78,6 +122,14 @@ public class ChessPosition {
     public int getColumn() { return col; }
 
 
+    /**
+     * @return  algebraic name of this square (e.g. "e4")
+     */
+    public String toAlgebraic() {
+        return "" + (char) ('a' + col - 1) + row;
+    }
+
+
     /**
      * @return string representation of ChessPosition object
      */
@@ -102,6 +154,6 @@ public class ChessPosition {
      * @return      a ChessPosition updated relatively by 'xVal' and 'yVal'
      */
     public ChessPosition getRelativePosition(int xVal, int yVal) {
-        return new ChessPosition(row + xVal, col + yVal);
+        return of(row + xVal, col + yVal);
     }
 }
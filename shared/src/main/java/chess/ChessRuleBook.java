@@ -2,16 +2,18 @@ package chess;
 
 import java.util.Collection;
 import java.util.Collections;
-import java.util.Iterator;
 
 import static chess.ChessGame.TeamColor;
+import static chess.ChessPiece.PieceType.*;
 
 public interface ChessRuleBook {
 
   /**
    * Returns a collection of valid chess moves on a given board at a given position;
    * Takes all the valid moves for the piece and reduces them by those that would leave
-   * the king in danger.
+   * the king in danger. Each candidate is made and unmade on 'board' itself, so the board
+   * is briefly mutated but always restored before returning. Unlike a read, this is not safe
+   * while another thread uses the same board, even one that only reads it.
    *
    * @param board    given chess board
    * @param position position on the given chess board
@@ -23,35 +25,126 @@ public interface ChessRuleBook {
       return Collections.emptyList();
     }
 
-    Collection<ChessMove> possibleMoves = PieceMovement.getPossibleMoves(board, position);
-    TeamColor turnColor = piece.getTeamColor();
+    MoveList moves = new MoveList();
+    PieceMovement.addPossibleMoves(board, position.toSquare(), moves);
+    retainLegalMoves(board, piece.getTeamColor(), moves, 0);
+    return moves.asSet();
+  }
 
-    // For every possible move, see if the king would be in check
-    Iterator<ChessMove> iterator = possibleMoves.iterator();
-    while (iterator.hasNext()) {
-      ChessMove move = iterator.next();
-      ChessBoard boardAfterMove;
 
-      try {
-        boardAfterMove = new ChessBoard(board);
-      }
-      catch (CloneNotSupportedException e){
-        throw new IllegalArgumentException("Board could not be cloned");
-      }
+  /**
+   * Appends every legal move of 'teamColor' to 'moves'. All pseudo-legal moves are generated
+   * first, while the piece list is left alone, and then filtered in place; the board is
+   * briefly mutated but always restored before returning.
+   *
+   * @param board     given chess board
+   * @param teamColor team to generate for
+   * @param moves     list to append to
+   */
+  static void generateLegalMoves(ChessBoard board, TeamColor teamColor, MoveList moves) {
+    int first = moves.size();
+    PieceList pieceList = board.getPieceList(teamColor);
+    for (int i = 0; i < pieceList.size(); i++) {
+      PieceMovement.addPossibleMoves(board, pieceList.get(i), moves);
+    }
+    retainLegalMoves(board, teamColor, moves, first);
+  }
 
-      try {
-        boardAfterMove.makeMove(move);
-      }
-      catch (InvalidMoveException e) {
-        throw new RuntimeException(e);
+
+  /**
+   * Removes the moves from index 'first' on that would leave the king of 'turnColor' in
+   * check, compacting the kept ones in order.
+   */
+  private static void retainLegalMoves(ChessBoard board, TeamColor turnColor, MoveList moves, int first) {
+    int kept = first;
+    for (int i = first; i < moves.size(); i++) {
+      if (!leavesKingInCheck(board, moves.get(i), turnColor)) {
+        moves.setCode(kept++, moves.getCode(i));
       }
+    }
+    moves.truncate(kept);
+  }
+
+
+  /**
+   * Returns if a single move is legal, generating only the moving piece's moves and testing
+   * king safety for this one candidate. Whose turn it is is not checked.
+   *
+   * @param board given chess board
+   * @param move  move to validate
+   * @return      if 'move' is legal on 'board'
+   */
+  static boolean isLegalMove(ChessBoard board, ChessMove move) {
+    return isLegalMove(board, move, new MoveList());
+  }
+
+
+  /**
+   * isLegalMove generating into a caller-owned list, so that repeated checks allocate nothing.
+   *
+   * @param board   given chess board
+   * @param move    move to validate
+   * @param scratch list to generate into; cleared first and left holding garbage
+   * @return        if 'move' is legal on 'board'
+   */
+  static boolean isLegalMove(ChessBoard board, ChessMove move, MoveList scratch) {
+    ChessPiece piece = board.getPiece(move.getStartPosition());
+    if (piece == null) {
+      return false;
+    }
+
+    scratch.clear();
+    PieceMovement.addPossibleMoves(board, move.getStartPosition().toSquare(), scratch);
+    return scratch.contains(move) && !leavesKingInCheck(board, move, piece.getTeamColor());
+  }
 
-      // Pass the theoretical board into isInCheck as if it were still (turnColor)'s turn
-      if (isInCheck(boardAfterMove, turnColor)) {
-        iterator.remove();  // Use iterator to safely remove the current element
+
+  /**
+   * Returns if making 'move' would leave the king of 'turnColor' in check. The move is
+   * applied to 'board' in place and taken back before returning.
+   *
+   * @param board     given chess board
+   * @param move      pseudo-legal move to try
+   * @param turnColor color of the moving team
+   * @return          if the move is illegal because of king safety
+   */
+  static boolean leavesKingInCheck(ChessBoard board, ChessMove move, TeamColor turnColor) {
+    board.pushMove(move);
+    try {
+      // Test the board as if it were still (turnColor)'s turn
+      return isInCheck(board, turnColor);
+    }
+    finally {
+      board.popMove();
+    }
+  }
+
+
+  /**
+   * Bitboard counterpart of getValidMoves. Nothing is copied or moved: king safety of each
+   * candidate is tested with mask operations on the occupancy the move would leave.
+   *
+   * @param board    given bitboard
+   * @param position position on the given bitboard
+   * @return collection of valid chess moves (empty if position doesn't contain a piece)
+   */
+  static Collection<ChessMove> getValidMoves(ChessBitboard board, ChessPosition position) {
+    ChessPiece piece = board.getPiece(position);
+    if (piece == null) {
+      return Collections.emptyList();
+    }
+
+    MoveList moves = new MoveList();
+    board.addPieceMoves(position.toSquare(), moves);
+    int kept = 0;
+    for (int i = 0; i < moves.size(); i++) {
+      int code = moves.getCode(i);
+      if (!board.leavesKingInCheck(code & 0x3F, code >>> 6 & 0x3F)) {
+        moves.setCode(kept++, code);
       }
     }
-    return possibleMoves;
+    moves.truncate(kept);
+    return moves.asSet();
   }
 
 
@@ -63,45 +156,193 @@ public interface ChessRuleBook {
    * @return          if the team is in check
    */
   static boolean isInCheck(ChessBoard board, TeamColor teamColor) {
+    int kingSquare = board.getKingSquare(teamColor);
+    if (kingSquare == -1) {
+      return false;
+    }
 
     TeamColor enemyColor = (teamColor == TeamColor.WHITE) ? TeamColor.BLACK : TeamColor.WHITE;
+    return isSquareAttacked(board, kingSquare, enemyColor);
+  }
+
+
+  /**
+   * Returns if any piece of color 'attacker' attacks the given square.
+   *
+   * @param board     given chess board
+   * @param position  square to revise
+   * @param attacker  color of the attacking team
+   * @return          if 'position' is attacked by 'attacker'
+   */
+  static boolean isSquareAttacked(ChessBoard board, ChessPosition position, TeamColor attacker) {
+    return isSquareAttacked(board, position.toSquare(), attacker);
+  }
+
+
+  /**
+   * Returns if any piece of color 'attacker' attacks the given square.
+   * Works backwards from the square using the ChessConstants tables: the squares a defending
+   * pawn would attack from here are exactly where an attacking pawn must stand, and likewise
+   * for knight hops and adjacent kings; sliders are found by walking each ray to its first piece.
+   *
+   * @param board     given chess board
+   * @param square    square index, (row - 1) * 8 + (col - 1)
+   * @param attacker  color of the attacking team
+   * @return          if the square is attacked by 'attacker'
+   */
+  static boolean isSquareAttacked(ChessBoard board, int square, TeamColor attacker) {
+    TeamColor defender = (attacker == TeamColor.WHITE) ? TeamColor.BLACK : TeamColor.WHITE;
+    return isAttackedFrom(board, ChessConstants.PAWN_ATTACKS[defender.ordinal()][square], attacker, PAWN)
+            || isAttackedFrom(board, ChessConstants.KNIGHT_TARGETS[square], attacker, KNIGHT)
+            || isAttackedFrom(board, ChessConstants.KING_TARGETS[square], attacker, KING)
+            || isAttackedAlongRays(board, ChessConstants.ROOK_RAYS[square], attacker, ROOK)
+            || isAttackedAlongRays(board, ChessConstants.BISHOP_RAYS[square], attacker, BISHOP);
+  }
 
-    // For each enemy position, check if any of its moves can take the white king
-    Collection<ChessPosition> enemyPositions = board.iterateForFriendlyPieces(enemyColor);
-    for (ChessPosition anEnemyPosition : enemyPositions) {
-      Collection<ChessMove> possibleEnemyMoves = PieceMovement.getPossibleMoves(board, anEnemyPosition);
-      for (ChessMove possibleEnemyMove : possibleEnemyMoves) {
-        if (board.landsOnEnemy(possibleEnemyMove) && board.getCapturedPiece(possibleEnemyMove).getPieceType() == ChessPiece.PieceType.KING) {
-          return true;
+
+  /**
+   * @return  if any of 'squares' holds an 'attacker' piece of type 'type'
+   */
+  private static boolean isAttackedFrom(ChessBoard board, int[] squares, TeamColor attacker, ChessPiece.PieceType type) {
+    for (int square : squares) {
+      if (isPiece(board.getPiece(square), attacker, type)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+
+  /**
+   * Walks each ray and reports if the first piece met is an enemy slider moving along
+   * that ray ('sliderType' or a queen).
+   */
+  private static boolean isAttackedAlongRays(ChessBoard board, int[][] rays, TeamColor attacker, ChessPiece.PieceType sliderType) {
+    for (int[] ray : rays) {
+      for (int square : ray) {
+        ChessPiece piece = board.getPiece(square);
+        if (piece != null) {
+          if (piece.getTeamColor() == attacker && (piece.getPieceType() == sliderType || piece.getPieceType() == QUEEN)) {
+            return true;
+          }
+          break;
         }
       }
     }
     return false;
   }
 
+
   /**
-   * Returns if the team on the given board is in checkmate.
+   * @return  if 'piece' exists and is of the given color and type
+   */
+  private static boolean isPiece(ChessPiece piece, TeamColor color, ChessPiece.PieceType type) {
+    return piece != null && piece.getTeamColor() == color && piece.getPieceType() == type;
+  }
+
+  /**
+   * Returns if the team on the given bitboard is in check.
+   *
+   * @param board     bitboard to revise for check
+   * @param teamColor team to revise for being in check
+   * @return          if the team is in check
+   */
+  static boolean isInCheck(ChessBitboard board, TeamColor teamColor) {
+    return board.isInCheck(teamColor);
+  }
+
+  /**
+   * Returns if the team on the given board is in checkmate: in check with no legal move.
    *
    * @param board     board to revise for checkmate
    * @param teamColor team to revise for being in checkmate
    * @return          if said team is in checkmate
    */
   static boolean isInCheckMate(ChessBoard board, TeamColor teamColor) {
-    ChessPosition kingPosition = board.getKingPosition(teamColor);
-    Collection<ChessMove> validKingMoves = getValidMoves(board, kingPosition);
-    return (validKingMoves.isEmpty() && isInCheck(board, teamColor));
+    return isInCheckMate(board, teamColor, new MoveList());
+  }
+
+  /**
+   * @param scratch   list to generate into; cleared first and left holding garbage
+   * @see #isInCheckMate(ChessBoard, TeamColor)
+   */
+  static boolean isInCheckMate(ChessBoard board, TeamColor teamColor, MoveList scratch) {
+    return isInCheck(board, teamColor) && !hasAnyLegalMove(board, teamColor, scratch);
   }
 
   /**
-   * Returns if the team on the given board is in stalemate.
+   * Returns if the team on the given board is in stalemate: not in check with no legal move.
    *
    * @param board     board to revise for stalemate
    * @param teamColor team to revise for being in stalemate
    * @return          if said team is in stalemate
    */
   static boolean isInStaleMate(ChessBoard board, TeamColor teamColor) {
-    ChessPosition kingPosition = board.getKingPosition(teamColor);
-    Collection<ChessMove> validKingMoves = getValidMoves(board, kingPosition);
-    return (validKingMoves.isEmpty() && !isInCheck(board, teamColor));
+    return isInStaleMate(board, teamColor, new MoveList());
+  }
+
+  /**
+   * @param scratch   list to generate into; cleared first and left holding garbage
+   * @see #isInStaleMate(ChessBoard, TeamColor)
+   */
+  static boolean isInStaleMate(ChessBoard board, TeamColor teamColor, MoveList scratch) {
+    return !isInCheck(board, teamColor) && !hasAnyLegalMove(board, teamColor, scratch);
+  }
+
+
+  /**
+   * Returns if any piece of the team has a legal move. Stops at the first one found, so only
+   * positions without any (mates and stalemates) pay for trying every candidate. The king goes
+   * first, as in check it most often has the escape.
+   *
+   * @param board     given chess board (briefly mutated, always restored)
+   * @param teamColor team to revise
+   * @return          if 'teamColor' has at least one legal move
+   */
+  static boolean hasAnyLegalMove(ChessBoard board, TeamColor teamColor) {
+    return hasAnyLegalMove(board, teamColor, new MoveList());
+  }
+
+
+  /**
+   * hasAnyLegalMove generating into a caller-owned list, so that repeated checks allocate nothing.
+   *
+   * @param board     given chess board (briefly mutated, always restored)
+   * @param teamColor team to revise
+   * @param scratch   list to generate into; cleared first and left holding garbage
+   * @return          if 'teamColor' has at least one legal move
+   */
+  static boolean hasAnyLegalMove(ChessBoard board, TeamColor teamColor, MoveList scratch) {
+    scratch.clear();
+    int kingSquare = board.getKingSquare(teamColor);
+    if (kingSquare != -1) {
+      PieceMovement.addPossibleMoves(board, kingSquare, scratch);
+      if (containsLegalMove(board, teamColor, scratch)) {
+        return true;
+      }
+      scratch.clear();
+    }
+
+    // Generate everything before trying any, as trying moves reorders the live piece list
+    PieceList pieceList = board.getPieceList(teamColor);
+    for (int i = 0; i < pieceList.size(); i++) {
+      if (pieceList.get(i) != kingSquare) {
+        PieceMovement.addPossibleMoves(board, pieceList.get(i), scratch);
+      }
+    }
+    return containsLegalMove(board, teamColor, scratch);
+  }
+
+
+  /**
+   * @return  if any of the pseudo-legal 'moves' keeps the king of 'teamColor' safe
+   */
+  private static boolean containsLegalMove(ChessBoard board, TeamColor teamColor, MoveList moves) {
+    for (int i = 0; i < moves.size(); i++) {
+      if (!leavesKingInCheck(board, moves.get(i), teamColor)) {
+        return true;
+      }
+    }
+    return false;
   }
 }
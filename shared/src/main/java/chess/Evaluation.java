@@ -0,0 +1,150 @@
+package chess;
+
+/**
+ * Static evaluation terms: material values and piece-square tables in centipawns.
+ * <p>
+ * Every term depends on one piece and its square only, so ChessBoard keeps the sums up to date
+ * with one add or subtract whenever a piece is placed or removed, just like the Zobrist key.
+ * The king is the exception: it should hide in the middlegame but centralize in the endgame, so
+ * its two tables are blended by the game phase, which counts the minor and major pieces left
+ * (knights and bishops 1, rooks 2, queens 4; MAX_PHASE with every piece on the board).
+ */
+final class Evaluation {
+
+  static final int MAX_PHASE = 24;
+
+  // By PieceType ordinal (KING, QUEEN, BISHOP, KNIGHT, ROOK, PAWN)
+  private static final int[] PIECE_VALUES = {0, 900, 330, 320, 500, 100};
+  private static final int[] PHASE_WEIGHTS = {0, 4, 1, 1, 2, 0};
+
+  // Tables from white's side, a8 first and h1 last; black reads them mirrored
+  private static final int[] QUEEN_TABLE = {
+          -20, -10, -10,  -5,  -5, -10, -10, -20,
+          -10,   0,   0,   0,   0,   0,   0, -10,
+          -10,   0,   5,   5,   5,   5,   0, -10,
+           -5,   0,   5,   5,   5,   5,   0,  -5,
+            0,   0,   5,   5,   5,   5,   0,  -5,
+          -10,   5,   5,   5,   5,   5,   0, -10,
+          -10,   0,   5,   0,   0,   0,   0, -10,
+          -20, -10, -10,  -5,  -5, -10, -10, -20};
+  private static final int[] BISHOP_TABLE = {
+          -20, -10, -10, -10, -10, -10, -10, -20,
+          -10,   0,   0,   0,   0,   0,   0, -10,
+          -10,   0,   5,  10,  10,   5,   0, -10,
+          -10,   5,   5,  10,  10,   5,   5, -10,
+          -10,   0,  10,  10,  10,  10,   0, -10,
+          -10,  10,  10,  10,  10,  10,  10, -10,
+          -10,   5,   0,   0,   0,   0,   5, -10,
+          -20, -10, -10, -10, -10, -10, -10, -20};
+  private static final int[] KNIGHT_TABLE = {
+          -50, -40, -30, -30, -30, -30, -40, -50,
+          -40, -20,   0,   0,   0,   0, -20, -40,
+          -30,   0,  10,  15,  15,  10,   0, -30,
+          -30,   5,  15,  20,  20,  15,   5, -30,
+          -30,   0,  15,  20,  20,  15,   0, -30,
+          -30,   5,  10,  15,  15,  10,   5, -30,
+          -40, -20,   0,   5,   5,   0, -20, -40,
+          -50, -40, -30, -30, -30, -30, -40, -50};
+  private static final int[] ROOK_TABLE = {
+            0,   0,   0,   0,   0,   0,   0,   0,
+            5,  10,  10,  10,  10,  10,  10,   5,
+           -5,   0,   0,   0,   0,   0,   0,  -5,
+           -5,   0,   0,   0,   0,   0,   0,  -5,
+           -5,   0,   0,   0,   0,   0,   0,  -5,
+           -5,   0,   0,   0,   0,   0,   0,  -5,
+           -5,   0,   0,   0,   0,   0,   0,  -5,
+            0,   0,   0,   5,   5,   0,   0,   0};
+  private static final int[] PAWN_TABLE = {
+            0,   0,   0,   0,   0,   0,   0,   0,
+           50,  50,  50,  50,  50,  50,  50,  50,
+           10,  10,  20,  30,  30,  20,  10,  10,
+            5,   5,  10,  25,  25,  10,   5,   5,
+            0,   0,   0,  20,  20,   0,   0,   0,
+            5,  -5, -10,   0,   0, -10,  -5,   5,
+            5,  10,  10, -20, -20,  10,  10,   5,
+            0,   0,   0,   0,   0,   0,   0,   0};
+  private static final int[] KING_MIDDLEGAME_TABLE = {
+          -30, -40, -40, -50, -50, -40, -40, -30,
+          -30, -40, -40, -50, -50, -40, -40, -30,
+          -30, -40, -40, -50, -50, -40, -40, -30,
+          -30, -40, -40, -50, -50, -40, -40, -30,
+          -20, -30, -30, -40, -40, -30, -30, -20,
+          -10, -20, -20, -20, -20, -20, -20, -10,
+           20,  20,   0,   0,   0,   0,  20,  20,
+           20,  30,  10,   0,   0,  10,  30,  20};
+  private static final int[] KING_ENDGAME_TABLE = {
+          -50, -40, -30, -20, -20, -30, -40, -50,
+          -30, -20, -10,   0,   0, -10, -20, -30,
+          -30, -10,  20,  30,  30,  20, -10, -30,
+          -30, -10,  30,  40,  40,  30, -10, -30,
+          -30, -10,  30,  40,  40,  30, -10, -30,
+          -30, -10,  20,  30,  30,  20, -10, -30,
+          -30, -30,   0,   0,   0,   0, -30, -30,
+          -50, -30, -30, -30, -30, -30, -30, -50};
+
+  // [color.ordinal()][type.ordinal()][square], indexed like the board; the king's entries stay 0
+  private static final int[][][] PIECE_SQUARE_SCORES =
+          new int[ChessGame.TeamColor.values().length][ChessPiece.PieceType.values().length][ChessConstants.SQUARE_COUNT];
+  private static final int[][] KING_MIDDLEGAME_SCORES = new int[ChessGame.TeamColor.values().length][ChessConstants.SQUARE_COUNT];
+  private static final int[][] KING_ENDGAME_SCORES = new int[ChessGame.TeamColor.values().length][ChessConstants.SQUARE_COUNT];
+
+  static {
+    int[][] tables = {null, QUEEN_TABLE, BISHOP_TABLE, KNIGHT_TABLE, ROOK_TABLE, PAWN_TABLE};
+    for (int square = 0; square < ChessConstants.SQUARE_COUNT; square++) {
+      // Square a1 (0) is the table's last row for white and its first row for black
+      int[] tableIndices = {square ^ 56, square};
+      for (int color = 0; color < tableIndices.length; color++) {
+        for (int type = 1; type < tables.length; type++) {
+          PIECE_SQUARE_SCORES[color][type][square] = tables[type][tableIndices[color]];
+        }
+        KING_MIDDLEGAME_SCORES[color][square] = KING_MIDDLEGAME_TABLE[tableIndices[color]];
+        KING_ENDGAME_SCORES[color][square] = KING_ENDGAME_TABLE[tableIndices[color]];
+      }
+    }
+  }
+
+
+  /**
+   * @param piece   piece on the board
+   * @return        material value of 'piece' (0 for a king)
+   */
+  static int material(ChessPiece piece) {
+    return PIECE_VALUES[piece.getPieceType().ordinal()];
+  }
+
+
+  /**
+   * @param piece   piece on the board
+   * @param square  square index, (row - 1) * 8 + (col - 1)
+   * @return        piece-square bonus of 'piece' standing on 'square' (0 for a king)
+   */
+  static int pieceSquareScore(ChessPiece piece, int square) {
+    return PIECE_SQUARE_SCORES[piece.getTeamColor().ordinal()][piece.getPieceType().ordinal()][square];
+  }
+
+
+  /**
+   * @param piece   piece on the board
+   * @return        what 'piece' adds to the game phase
+   */
+  static int phaseWeight(ChessPiece piece) {
+    return PHASE_WEIGHTS[piece.getPieceType().ordinal()];
+  }
+
+
+  /**
+   * @param color   color of the king
+   * @param square  square of the king
+   * @param phase   game phase, from 0 (bare kings and pawns) to MAX_PHASE (every piece left)
+   * @return        piece-square bonus of the king, blended between middlegame and endgame
+   */
+  static int kingScore(ChessGame.TeamColor color, int square, int phase) {
+    int middlegamePhase = Math.min(phase, MAX_PHASE);
+    return (KING_MIDDLEGAME_SCORES[color.ordinal()][square] * middlegamePhase
+            + KING_ENDGAME_SCORES[color.ordinal()][square] * (MAX_PHASE - middlegamePhase)) / MAX_PHASE;
+  }
+
+
+  // Private constructor to avoid compiler's implicit one
+  private Evaluation() { throw new AssertionError("Evaluation class should not be instantiated"); }
+}
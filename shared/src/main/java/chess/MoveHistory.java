@@ -0,0 +1,70 @@
+package chess;
+
+import java.util.Arrays;
+
+/**
+ * Append-only log of the moves played in a game: each move in its 16-bit form (ChessMove.encode)
+ * and the piece it captured as a 4-bit code (ChessPiece.toCode), or NO_CAPTURE.
+ * <p>
+ * Three bytes per ply, so a long game costs a few hundred bytes instead of a board per move.
+ */
+final class MoveHistory {
+
+  static final byte NO_CAPTURE = -1;
+
+  private static final int INITIAL_CAPACITY = 64;
+
+  private short[] moves;
+  private byte[] capturedPieces;
+  private int size;
+
+
+  /**
+   * Constructs an empty MoveHistory object.
+   */
+  MoveHistory() {
+    moves = new short[INITIAL_CAPACITY];
+    capturedPieces = new byte[INITIAL_CAPACITY];
+  }
+
+
+  /**
+   * @param move          move that was played
+   * @param capturedPiece piece it captured (null for none)
+   */
+  void add(ChessMove move, ChessPiece capturedPiece) {
+    if (size == moves.length) {
+      moves = Arrays.copyOf(moves, size * 2);
+      capturedPieces = Arrays.copyOf(capturedPieces, size * 2);
+    }
+    moves[size] = move.encode();
+    capturedPieces[size] = (capturedPiece == null) ? NO_CAPTURE : (byte) capturedPiece.toCode();
+    size++;
+  }
+
+
+  /**
+   * @return  number of moves played
+   */
+  int size() {
+    return size;
+  }
+
+
+  /**
+   * @param ply   index of the move (0 to size() - 1)
+   * @return      the move played at 'ply'
+   */
+  ChessMove getMove(int ply) {
+    return ChessMove.decode(moves[ply]);
+  }
+
+
+  /**
+   * @param ply   index of the move (0 to size() - 1)
+   * @return      the piece captured at 'ply', or null if none was
+   */
+  ChessPiece getCapturedPiece(int ply) {
+    return (capturedPieces[ply] == NO_CAPTURE) ? null : ChessPiece.ofCode(capturedPieces[ply]);
+  }
+}
@@ -0,0 +1,188 @@
+package chess;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Moves in their packed form (ChessMove.codeOf) in a growable int array, for move generation
+ * without hashing or boxing. A list is filled by appending, can be cleared and reused, and is
+ * turned into ChessMove objects only when read: get() looks up the shared instance for a code.
+ * <p>
+ * The generators never add the same move twice, so asSet() can expose the list as a Set
+ * without copying it.
+ */
+public final class MoveList {
+
+  private static final int INITIAL_CAPACITY = 32;
+
+  private int[] codes = new int[INITIAL_CAPACITY];
+  private int size;
+
+
+  /**
+   * @return  number of moves in the list
+   */
+  public int size() {
+    return size;
+  }
+
+
+  /**
+   * @param index position in the list (0 to size() - 1)
+   * @return      move code at 'index'
+   */
+  public int getCode(int index) {
+    return codes[index];
+  }
+
+
+  /**
+   * @param index position in the list (0 to size() - 1)
+   * @return      shared ChessMove at 'index'
+   */
+  public ChessMove get(int index) {
+    return ChessMove.ofCode(codes[index]);
+  }
+
+
+  /**
+   * @param move  move to search for
+   * @return      if 'move' is in the list
+   */
+  public boolean contains(ChessMove move) {
+    for (int i = 0; i < size; i++) {
+      if (ChessMove.ofCode(codes[i]).equals(move)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+
+  /**
+   * Appends a non-promoting move.
+   *
+   * @param startSquare start square index
+   * @param endSquare   end square index
+   */
+  void add(int startSquare, int endSquare) {
+    addCode(ChessMove.codeOf(startSquare, endSquare, 0));
+  }
+
+
+  /**
+   * Appends one move per promotion piece (queen, rook, bishop, knight).
+   *
+   * @param startSquare start square index
+   * @param endSquare   end square index on the last row
+   */
+  void addPromotions(int startSquare, int endSquare) {
+    for (int promotionCode = 1; promotionCode <= ChessConstants.PROMOTION_TYPES.size(); promotionCode++) {
+      addCode(ChessMove.codeOf(startSquare, endSquare, promotionCode));
+    }
+  }
+
+
+  /**
+   * @param code  move code to append
+   */
+  void addCode(int code) {
+    if (size == codes.length) {
+      codes = Arrays.copyOf(codes, size * 2);
+    }
+    codes[size++] = code;
+  }
+
+
+  /**
+   * @param index position in the list (0 to size() - 1)
+   * @param code  move code to store there
+   */
+  void setCode(int index, int code) {
+    codes[index] = code;
+  }
+
+
+  /**
+   * Drops every move from 'newSize' on; used to compact the list after filtering in place.
+   *
+   * @param newSize   number of moves to keep (at most size())
+   */
+  void truncate(int newSize) {
+    size = newSize;
+  }
+
+
+  /**
+   * Empties the list, keeping its array for reuse.
+   */
+  void clear() {
+    size = 0;
+  }
+
+
+  /**
+   * Removes the move at 'index', shifting the later ones down so the order is kept.
+   *
+   * @param index position in the list (0 to size() - 1)
+   */
+  void remove(int index) {
+    System.arraycopy(codes, index + 1, codes, index, size - index - 1);
+    size--;
+  }
+
+
+  /**
+   * Adapter to the Collection API: a Set view backed by this list, so it reflects later
+   * changes. It supports removal through its iterator, not adding.
+   *
+   * @return  this list as a Set of ChessMove
+   */
+  public Set<ChessMove> asSet() {
+    return new AbstractSet<>() {
+      @Override
+      public Iterator<ChessMove> iterator() {
+        return new Iterator<>() {
+          private int cursor;
+          private boolean canRemove;
+
+          @Override
+          public boolean hasNext() {
+            return cursor < size;
+          }
+
+          @Override
+          public ChessMove next() {
+            if (cursor >= size) {
+              throw new NoSuchElementException();
+            }
+            canRemove = true;
+            return get(cursor++);
+          }
+
+          @Override
+          public void remove() {
+            if (!canRemove) {
+              throw new IllegalStateException();
+            }
+            MoveList.this.remove(--cursor);
+            canRemove = false;
+          }
+        };
+      }
+
+      @Override
+      public int size() {
+        return size;
+      }
+
+      @Override
+      public boolean contains(Object o) {
+        return o instanceof ChessMove move && MoveList.this.contains(move);
+      }
+    };
+  }
+}
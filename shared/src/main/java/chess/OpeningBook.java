@@ -0,0 +1,222 @@
+package chess;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.random.RandomGenerator;
+
+/**
+ * A read-only opening book: weighted moves by position key (ChessGame.getZobristKey, whose
+ * fixed seed makes keys stable across runs), memory-mapped from a file that OpeningBookBuilder
+ * writes.
+ * <p>
+ * File layout, big-endian: a 16-byte header (MAGIC, FORMAT_VERSION, entry count as a long),
+ * then 16-byte entries sorted by key, each holding the key (8 bytes), the move code
+ * (ChessMove.encode, 2 bytes), 2 reserved bytes and the weight (4 bytes). Entries of the same
+ * key are sorted by weight, highest first.
+ * <p>
+ * Lookups binary-search the mapping in place, so the book costs no heap beyond this object
+ * however large the file is, and the operating system pages in only what is read. The index
+ * accessors (findFirst, keyAt, moveAt, weightAt) allocate nothing.
+ */
+public final class OpeningBook implements Closeable {
+
+  static final int MAGIC = 0x43424F4B;  // "CBOK"
+  static final int FORMAT_VERSION = 1;
+  static final int HEADER_BYTES = 16;
+  static final int ENTRY_BYTES = 16;
+
+  // A MappedByteBuffer stops at 2 GB, so larger books are mapped in chunks of whole entries
+  private static final int CHUNK_SHIFT = 26;
+  private static final long CHUNK_MASK = (1L << CHUNK_SHIFT) - 1;
+
+  private final FileChannel channel;
+  private final MappedByteBuffer[] chunks;
+  private final long size;
+
+
+  private OpeningBook(FileChannel channel, MappedByteBuffer[] chunks, long size) {
+    this.channel = channel;
+    this.chunks = chunks;
+    this.size = size;
+  }
+
+
+  /**
+   * Maps a book file.
+   *
+   * @param path  file written by OpeningBookBuilder
+   * @return      the book, to be closed when no longer needed
+   * @throws IOException if the file can't be read or is not a book
+   */
+  public static OpeningBook open(Path path) throws IOException {
+    FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+    try {
+      ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+      while (header.hasRemaining() && channel.read(header) != -1) {
+        // Keep reading until the header is complete or the file ends
+      }
+      header.flip();
+      if (header.remaining() < HEADER_BYTES || header.getInt() != MAGIC || header.getInt() != FORMAT_VERSION) {
+        throw new IOException("Not an opening book (or of another format version): " + path);
+      }
+      long size = header.getLong();
+      if (size < 0 || channel.size() != HEADER_BYTES + size * ENTRY_BYTES) {
+        throw new IOException("Opening book is truncated: " + path);
+      }
+
+      int chunkCount = (int) ((size + CHUNK_MASK) >>> CHUNK_SHIFT);
+      MappedByteBuffer[] chunks = new MappedByteBuffer[chunkCount];
+      for (int i = 0; i < chunkCount; i++) {
+        long firstEntry = (long) i << CHUNK_SHIFT;
+        long entryCount = Math.min(size - firstEntry, 1L << CHUNK_SHIFT);
+        chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_BYTES + firstEntry * ENTRY_BYTES, entryCount * ENTRY_BYTES);
+      }
+      return new OpeningBook(channel, chunks, size);
+    }
+    catch (IOException | RuntimeException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+
+  /**
+   * @return  number of entries (position, move) in the book
+   */
+  public long size() {
+    return size;
+  }
+
+
+  /**
+   * @param key   position key
+   * @return      index of the first entry for 'key', or -1 if the book doesn't have it
+   */
+  public long findFirst(long key) {
+    long low = 0;
+    long high = size;
+    while (low < high) {
+      long middle = (low + high) >>> 1;
+      if (keyAt(middle) < key) {
+        low = middle + 1;
+      }
+      else {
+        high = middle;
+      }
+    }
+    return (low < size && keyAt(low) == key) ? low : -1;
+  }
+
+
+  /**
+   * @param index entry index (0 to size() - 1)
+   * @return      position key of the entry
+   */
+  public long keyAt(long index) {
+    return chunk(index).getLong(offset(index));
+  }
+
+
+  /**
+   * @param index entry index (0 to size() - 1)
+   * @return      move of the entry (a shared instance)
+   * @throws IllegalArgumentException if the stored move code is invalid
+   */
+  public ChessMove moveAt(long index) {
+    return ChessMove.decode(chunk(index).getShort(offset(index) + 8));
+  }
+
+
+  /**
+   * @param index entry index (0 to size() - 1)
+   * @return      weight of the entry (how often the move was played)
+   */
+  public int weightAt(long index) {
+    return chunk(index).getInt(offset(index) + 12);
+  }
+
+
+  /**
+   * @param game  position to look up (not modified)
+   * @return      the most played book move that is legal in 'game', or null if there is none
+   */
+  public ChessMove getBestMove(ChessGame game) {
+    long key = game.getZobristKey();
+    for (long i = findFirst(key); i != -1 && i < size && keyAt(i) == key; i++) {
+      if (isLegal(game, moveAt(i))) {
+        return moveAt(i);
+      }
+    }
+    return null;
+  }
+
+
+  /**
+   * Picks a legal book move at random, each with a probability proportional to its weight,
+   * so that bots don't play the same opening every game.
+   *
+   * @param game    position to look up (not modified)
+   * @param random  source of randomness
+   * @return        a legal book move, or null if there is none
+   */
+  public ChessMove getWeightedMove(ChessGame game, RandomGenerator random) {
+    long key = game.getZobristKey();
+    long first = findFirst(key);
+    if (first == -1) {
+      return null;
+    }
+
+    long totalWeight = 0;
+    long end = first;
+    for (; end < size && keyAt(end) == key; end++) {
+      if (isLegal(game, moveAt(end))) {
+        totalWeight += weightAt(end);
+      }
+    }
+    if (totalWeight == 0) {
+      return null;
+    }
+
+    long pick = random.nextLong(totalWeight);
+    for (long i = first; i < end; i++) {
+      if (isLegal(game, moveAt(i))) {
+        pick -= weightAt(i);
+        if (pick < 0) {
+          return moveAt(i);
+        }
+      }
+    }
+    return null;
+  }
+
+
+  /**
+   * Closes the file. The mapping itself is released once this object is garbage collected.
+   */
+  @Override
+  public void close() throws IOException {
+    channel.close();
+  }
+
+
+  /**
+   * Guards against the rare key collision handing out a move of another position. Checked
+   * with the game's own scratch list, so trying every candidate allocates nothing.
+   */
+  private static boolean isLegal(ChessGame game, ChessMove move) {
+    return game.isLegalMove(move);
+  }
+
+  private MappedByteBuffer chunk(long index) {
+    return chunks[(int) (index >>> CHUNK_SHIFT)];
+  }
+
+  private static int offset(long index) {
+    return (int) (index & CHUNK_MASK) * ENTRY_BYTES;
+  }
+}
@@ -0,0 +1,189 @@
+package chess;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Collects the opening moves of many games and writes them as an OpeningBook file: for every
+ * position within the first maxPly plies, how often each move was played from it.
+ * <p>
+ * Counts are kept in memory per position (a few dozen bytes each), so the ply limit and the
+ * minimum count given to write() are what keep large collections manageable.
+ */
+public final class OpeningBookBuilder {
+
+  public static final int DEFAULT_MAX_PLY = 20;
+  public static final int DEFAULT_MIN_COUNT = 2;
+
+  private final int maxPly;
+
+  // Position key -> (move code, count) pairs, flattened
+  private final Map<Long, int[]> positions = new HashMap<>();
+
+
+  /**
+   * Constructs an empty OpeningBookBuilder object.
+   *
+   * @param maxPly  number of opening plies of each game to take in
+   */
+  public OpeningBookBuilder(int maxPly) {
+    if (maxPly < 1) {
+      throw new IllegalArgumentException("Book depth must be at least 1 ply");
+    }
+    this.maxPly = maxPly;
+  }
+
+
+  /**
+   * Adds the first maxPly moves of a game, replayed from its start position.
+   *
+   * @param game  game whose move history to take in (not modified)
+   */
+  public void addGame(ChessGame game) {
+    List<ChessMove> moves = game.getMoveHistory();
+    ChessGame replayedGame = ChessGame.fromFen(game.getStartFen());
+    for (int ply = 0; ply < Math.min(maxPly, moves.size()); ply++) {
+      ChessMove move = moves.get(ply);
+      addMove(replayedGame.getZobristKey(), move.encode());
+      replayedGame.applyMove(move);
+    }
+  }
+
+
+  /**
+   * @return  number of distinct positions collected so far
+   */
+  public int getPositionCount() {
+    return positions.size();
+  }
+
+
+  /**
+   * Writes the book, leaving out moves played fewer than 'minCount' times.
+   *
+   * @param path      file to (over)write
+   * @param minCount  fewest times a move must have been played to be kept
+   * @return          number of entries written
+   * @throws IOException if writing fails
+   */
+  public long write(Path path, int minCount) throws IOException {
+    long[] keys = new long[positions.size()];
+    int keyCount = 0;
+    long entryCount = 0;
+    for (Map.Entry<Long, int[]> position : positions.entrySet()) {
+      int kept = sortByCount(position.getValue(), minCount);
+      if (kept > 0) {
+        keys[keyCount++] = position.getKey();
+        entryCount += kept;
+      }
+    }
+    Arrays.sort(keys, 0, keyCount);
+
+    try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path), 1 << 16))) {
+      out.writeInt(OpeningBook.MAGIC);
+      out.writeInt(OpeningBook.FORMAT_VERSION);
+      out.writeLong(entryCount);
+      for (int i = 0; i < keyCount; i++) {
+        int[] moves = positions.get(keys[i]);
+        for (int j = 0; j < moves.length && moves[j + 1] >= minCount; j += 2) {
+          out.writeLong(keys[i]);
+          out.writeShort(moves[j]);
+          out.writeShort(0);
+          out.writeInt(moves[j + 1]);
+        }
+      }
+    }
+    return entryCount;
+  }
+
+
+  private void addMove(long key, short code) {
+    int[] moves = positions.get(key);
+    if (moves != null) {
+      for (int i = 0; i < moves.length; i += 2) {
+        if (moves[i] == code) {
+          moves[i + 1]++;
+          return;
+        }
+      }
+      moves = Arrays.copyOf(moves, moves.length + 2);
+    }
+    else {
+      moves = new int[2];
+    }
+    moves[moves.length - 2] = code;
+    moves[moves.length - 1] = 1;
+    positions.put(key, moves);
+  }
+
+
+  /**
+   * Sorts (move, count) pairs by count, highest first (an insertion sort, as a position rarely
+   * has more than a handful of moves).
+   *
+   * @return  number of pairs with at least 'minCount'
+   */
+  private static int sortByCount(int[] moves, int minCount) {
+    for (int i = 2; i < moves.length; i += 2) {
+      int code = moves[i];
+      int count = moves[i + 1];
+      int j = i - 2;
+      for (; j >= 0 && moves[j + 1] < count; j -= 2) {
+        moves[j + 2] = moves[j];
+        moves[j + 3] = moves[j + 1];
+      }
+      moves[j + 2] = code;
+      moves[j + 3] = count;
+    }
+    int kept = 0;
+    while (kept * 2 < moves.length && moves[kept * 2 + 1] >= minCount) {
+      kept++;
+    }
+    return kept;
+  }
+
+
+  /**
+   * Builds a book from PGN files. Games with an illegal move are skipped.
+   * Usage: OpeningBookBuilder book-file max-ply min-count pgn-file...
+   *
+   * @param args  output file, plies per game, fewest plays per move, then the PGN files
+   * @throws IOException if a file can't be read or written
+   */
+  public static void main(String[] args) throws IOException {
+    if (args.length < 4) {
+      System.err.println("Usage: OpeningBookBuilder <book-file> <max-ply> <min-count> <pgn-file>...");
+      System.exit(2);
+    }
+    OpeningBookBuilder builder = new OpeningBookBuilder(Integer.parseInt(args[1]));
+    int minCount = Integer.parseInt(args[2]);
+
+    PgnImporter importer = new PgnImporter();
+    long gameCount = 0;
+    long skippedCount = 0;
+    for (int i = 3; i < args.length; i++) {
+      try (InputStream in = Files.newInputStream(Path.of(args[i]))) {
+        // Games are replayed in parallel; only the counting is serialized
+        PgnImporter.Summary summary = importer.importGames(in, (pgnGame, game) -> {
+          synchronized (builder) {
+            builder.addGame(game);
+          }
+        });
+        gameCount += summary.importedCount();
+        skippedCount += summary.skippedCount();
+      }
+    }
+
+    long entryCount = builder.write(Path.of(args[0]), minCount);
+    System.out.printf("%,d games (%,d skipped), %,d positions, %,d book entries%n",
+            gameCount, skippedCount, builder.getPositionCount(), entryCount);
+  }
+}
@@ -0,0 +1,219 @@
+package chess;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Perft ("performance test") walks the legal move tree to a fixed depth and counts the leaf nodes.
+ * <p>
+ * The counts for well-known positions are published, so a mismatch pinpoints a move generator bug,
+ * and the time taken measures raw generation throughput. Moves are made and unmade on a private copy
+ * of the board, and the shared ValidMoveCache is bypassed so that every node is really generated.
+ * <p>
+ * The parallel variant splits the top of the tree into one task per move, each on its own copy of
+ * the board, and lets idle ForkJoinPool workers steal them; subtrees of SEQUENTIAL_DEPTH plies or
+ * less are counted by the single-threaded recursion.
+ */
+public class Perft {
+
+  private static final int DEFAULT_DEPTH = 4;
+
+  // Subtrees this shallow are too small to be worth a task and a board copy of their own
+  private static final int SEQUENTIAL_DEPTH = 3;
+
+
+  /**
+   * Counts the leaf nodes of the legal move tree of 'game' at 'depth'.
+   *
+   * @param game  position to start from (not modified)
+   * @param depth number of plies to search
+   * @return      number of leaf nodes
+   */
+  public static long perft(ChessGame game, int depth) {
+    return perft(copyBoard(game.getBoard()), game.getTeamTurn(), depth, newMoveLists(depth));
+  }
+
+
+  /**
+   * Counts the leaf nodes of the legal move tree of 'game' at 'depth' on a ForkJoinPool; the
+   * pool's parallelism sets the number of threads.
+   *
+   * @param game  position to start from (not modified)
+   * @param depth number of plies to search
+   * @param pool  pool to run on
+   * @return      number of leaf nodes, the same as perft(game, depth)
+   */
+  public static long perft(ChessGame game, int depth, ForkJoinPool pool) {
+    return pool.invoke(new PerftTask(copyBoard(game.getBoard()), game.getTeamTurn(), depth));
+  }
+
+
+  /**
+   * Perft split by root move: the leaf count under each legal move of the side to move.
+   * Summing the values gives perft(game, depth).
+   *
+   * @param game  position to start from (not modified)
+   * @param depth number of plies to search (at least 1)
+   * @return      leaf count for every root move, in generation order
+   */
+  public static Map<ChessMove, Long> divide(ChessGame game, int depth) {
+    if (depth < 1) {
+      throw new IllegalArgumentException("Divide depth must be at least 1");
+    }
+
+    ChessBoard board = copyBoard(game.getBoard());
+    ChessGame.TeamColor turn = game.getTeamTurn();
+    Map<ChessMove, Long> counts = new LinkedHashMap<>();
+
+    MoveList moves = new MoveList();
+    ChessRuleBook.generateLegalMoves(board, turn, moves);
+    MoveList[] moveLists = newMoveLists(depth - 1);
+    for (int i = 0; i < moves.size(); i++) {
+      ChessMove move = moves.get(i);
+      board.pushMove(move);
+      counts.put(move, perft(board, opponent(turn), depth - 1, moveLists));
+      board.popMove();
+    }
+    return counts;
+  }
+
+
+  /**
+   * Recursive perft over a board that is mutated in place and restored before returning.
+   * The node 'depth' plies above the leaves generates into moveLists[depth - 1], so the whole
+   * walk reuses the same lists.
+   */
+  private static long perft(ChessBoard board, ChessGame.TeamColor turn, int depth, MoveList[] moveLists) {
+    if (depth == 0) {
+      return 1;
+    }
+
+    MoveList moves = moveLists[depth - 1];
+    moves.clear();
+    ChessRuleBook.generateLegalMoves(board, turn, moves);
+    if (depth == 1) {
+      // Leaf moves only need counting, not making
+      return moves.size();
+    }
+
+    long nodes = 0;
+    for (int i = 0; i < moves.size(); i++) {
+      ChessMove move = moves.get(i);
+      board.pushMove(move);
+      nodes += perft(board, opponent(turn), depth - 1, moveLists);
+      board.popMove();
+    }
+    return nodes;
+  }
+
+
+  /**
+   * Counts one subtree: in parallel subtasks, one per move, above SEQUENTIAL_DEPTH, and
+   * directly below it. The task owns its board.
+   */
+  private static final class PerftTask extends RecursiveTask<Long> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient ChessBoard board;
+    private final ChessGame.TeamColor turn;
+    private final int depth;
+
+    private PerftTask(ChessBoard board, ChessGame.TeamColor turn, int depth) {
+      this.board = board;
+      this.turn = turn;
+      this.depth = depth;
+    }
+
+    @Override
+    protected Long compute() {
+      if (depth <= SEQUENTIAL_DEPTH) {
+        return perft(board, turn, depth, newMoveLists(depth));
+      }
+
+      MoveList moves = new MoveList();
+      ChessRuleBook.generateLegalMoves(board, turn, moves);
+      PerftTask[] subtasks = new PerftTask[moves.size()];
+      for (int i = 0; i < moves.size(); i++) {
+        ChessMove move = moves.get(i);
+        board.pushMove(move);
+        subtasks[i] = new PerftTask(copyBoard(board), opponent(turn), depth - 1);
+        board.popMove();
+      }
+      invokeAll(subtasks);
+
+      long nodes = 0;
+      for (PerftTask subtask : subtasks) {
+        nodes += subtask.join();
+      }
+      return nodes;
+    }
+  }
+
+
+  /**
+   * @return  one move list per ply of a 'depth' ply walk
+   */
+  private static MoveList[] newMoveLists(int depth) {
+    MoveList[] moveLists = new MoveList[Math.max(depth, 0)];
+    for (int ply = 0; ply < moveLists.length; ply++) {
+      moveLists[ply] = new MoveList();
+    }
+    return moveLists;
+  }
+
+  private static ChessBoard copyBoard(ChessBoard original) {
+    try {
+      return original.clone();
+    }
+    catch (CloneNotSupportedException e) {
+      throw new IllegalStateException("Board could not be cloned", e);
+    }
+  }
+
+  private static ChessGame.TeamColor opponent(ChessGame.TeamColor color) {
+    return (color == ChessGame.TeamColor.WHITE) ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+  }
+
+
+  /**
+   * Runs perft from the starting position and reports nodes/second.
+   * Usage: Perft [depth] [divide | parallel [threads]]
+   *
+   * @param args  optional depth (default 4), then "divide" to print the count under each root
+   *              move or "parallel" to count on a pool of 'threads' (default: one per processor)
+   */
+  public static void main(String[] args) {
+    int depth = (args.length > 0) ? Integer.parseInt(args[0]) : DEFAULT_DEPTH;
+    boolean showDivide = args.length > 1 && args[1].equalsIgnoreCase("divide");
+    boolean parallel = args.length > 1 && args[1].equalsIgnoreCase("parallel");
+    ChessGame game = new ChessGame();
+
+    long startTime = System.nanoTime();
+    long nodes;
+    if (showDivide) {
+      Map<ChessMove, Long> counts = divide(game, depth);
+      counts.forEach((move, count) -> System.out.println(move + ": " + count));
+      nodes = counts.values().stream().mapToLong(Long::longValue).sum();
+    }
+    else if (parallel) {
+      int threadCount = (args.length > 2) ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+      ForkJoinPool pool = new ForkJoinPool(threadCount);
+      nodes = perft(game, depth, pool);
+      pool.shutdown();
+    }
+    else {
+      nodes = perft(game, depth);
+    }
+    long elapsedNanos = Math.max(System.nanoTime() - startTime, 1);
+
+    System.out.printf("Depth %d: %,d nodes in %.3f s (%,.0f nodes/s)%n",
+            depth, nodes, elapsedNanos / 1e9, nodes * 1e9 / elapsedNanos);
+  }
+
+
+  // Private constructor to avoid compiler's implicit one
+  private Perft() { throw new AssertionError("Perft class should not be instantiated"); }
+}
@@ -0,0 +1,30 @@
+package chess;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One game as read from PGN: its tag pairs, its main line in SAN and its result. Nothing is
+ * checked until replay() resolves the moves on a board.
+ *
+ * @param tags    tag pairs in file order, e.g. "White" -> "Carlsen, Magnus"
+ * @param moves   main line moves in SAN; comments, variations and NAGs are dropped
+ * @param result  "1-0", "0-1", "1/2-1/2" or "*" (also "*" when the movetext gives none)
+ */
+public record PgnGame(Map<String, String> tags, List<String> moves, String result) {
+
+  /**
+   * Plays the moves from the start position, or from the FEN tag when the game has one.
+   *
+   * @return  game after the last move, with the full move history
+   * @throws IllegalArgumentException if the FEN or a move is malformed, illegal or ambiguous
+   */
+  public ChessGame replay() {
+    String fen = tags.get("FEN");
+    ChessGame game = (fen == null) ? new ChessGame() : ChessGame.fromFen(fen);
+    for (String san : moves) {
+      game.applyMove(ChessNotation.fromSan(game.getBoard(), game.getTeamTurn(), san));
+    }
+    return game;
+  }
+}
@@ -0,0 +1,194 @@
+package chess;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Imports PGN archives of any size: the calling thread parses games one at a time while worker
+ * threads replay them (resolving every SAN move against the legal moves) and hand the results
+ * to a Sink.
+ * <p>
+ * Parsed games travel to the workers in batches through a bounded queue, so memory stays at a
+ * few batches per worker however large the archive is, and parsing simply waits whenever the
+ * workers fall behind. Replay is by far the costlier half, so the import scales with the
+ * number of workers until parsing becomes the bottleneck.
+ */
+public final class PgnImporter {
+
+  /**
+   * Receives replayed games. Called from all worker threads at once and in no particular order,
+   * so implementations must be thread-safe.
+   */
+  @FunctionalInterface
+  public interface Sink {
+
+    /**
+     * @param pgnGame the game as read, with its tags and SAN moves
+     * @param game    the game replayed to its last move; its move history gives every move
+     *                and, replayed from getStartFen(), every position
+     */
+    void accept(PgnGame pgnGame, ChessGame game);
+  }
+
+  /**
+   * Outcome of an import.
+   *
+   * @param importedCount number of games handed to the sink
+   * @param skippedCount  number of games left out for a malformed, illegal or ambiguous move
+   */
+  public record Summary(long importedCount, long skippedCount) { }
+
+
+  private static final int GAMES_PER_BATCH = 64;
+  private static final int QUEUED_BATCHES_PER_WORKER = 4;
+
+  // Tells a worker that no more batches will come
+  private static final List<PgnGame> END_OF_INPUT = List.of();
+
+  private final int threadCount;
+
+
+  /**
+   * Constructs a PgnImporter object with one worker per available processor.
+   */
+  public PgnImporter() {
+    this(Runtime.getRuntime().availableProcessors());
+  }
+
+
+  /**
+   * Constructs a PgnImporter object.
+   *
+   * @param threadCount number of worker threads replaying games
+   */
+  public PgnImporter(int threadCount) {
+    if (threadCount < 1) {
+      throw new IllegalArgumentException("An import needs at least 1 worker thread");
+    }
+    this.threadCount = threadCount;
+  }
+
+
+  /**
+   * Imports every game of a UTF-8 PGN stream.
+   *
+   * @see #importGames(PgnReader, Sink)
+   */
+  public Summary importGames(InputStream in, Sink sink) throws IOException {
+    return importGames(new PgnReader(in), sink);
+  }
+
+
+  /**
+   * Imports every game 'reader' has left. Games with a bad move are counted and skipped; any
+   * other failure stops the import. Returns once every game has reached the sink.
+   *
+   * @param reader  games to import (not closed here)
+   * @param sink    receiver of the replayed games
+   * @return        how many games were imported and skipped
+   * @throws IOException if reading fails or the calling thread is interrupted
+   * @throws RuntimeException the first exception thrown by the sink, if any
+   */
+  public Summary importGames(PgnReader reader, Sink sink) throws IOException {
+    BlockingQueue<List<PgnGame>> queue = new ArrayBlockingQueue<>(threadCount * QUEUED_BATCHES_PER_WORKER);
+    AtomicLong importedCount = new AtomicLong();
+    AtomicLong skippedCount = new AtomicLong();
+    AtomicReference<Throwable> failure = new AtomicReference<>();
+
+    Thread[] workers = new Thread[threadCount];
+    for (int i = 0; i < workers.length; i++) {
+      workers[i] = new Thread(() -> work(queue, sink, importedCount, skippedCount, failure), "pgn-import-" + i);
+      workers[i].setDaemon(true);
+      workers[i].start();
+    }
+
+    boolean finished = false;
+    try {
+      List<PgnGame> batch = new ArrayList<>(GAMES_PER_BATCH);
+      PgnGame pgnGame;
+      while (failure.get() == null && (pgnGame = reader.next()) != null) {
+        batch.add(pgnGame);
+        if (batch.size() == GAMES_PER_BATCH) {
+          queue.put(batch);
+          batch = new ArrayList<>(GAMES_PER_BATCH);
+        }
+      }
+      if (!batch.isEmpty()) {
+        queue.put(batch);
+      }
+      for (int i = 0; i < workers.length; i++) {
+        queue.put(END_OF_INPUT);
+      }
+      for (Thread worker : workers) {
+        worker.join();
+      }
+      finished = true;
+    }
+    catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("PGN import interrupted");
+    }
+    finally {
+      if (!finished) {
+        for (Thread worker : workers) {
+          worker.interrupt();
+        }
+      }
+    }
+
+    Throwable sinkFailure = failure.get();
+    if (sinkFailure instanceof RuntimeException e) {
+      throw e;
+    }
+    if (sinkFailure instanceof Error e) {
+      throw e;
+    }
+    return new Summary(importedCount.get(), skippedCount.get());
+  }
+
+
+  /**
+   * Worker loop: replays batches until the end marker. After a failure it keeps taking batches
+   * (without replaying them) so that the parsing thread never blocks on a full queue.
+   */
+  private static void work(BlockingQueue<List<PgnGame>> queue, Sink sink,
+                           AtomicLong importedCount, AtomicLong skippedCount, AtomicReference<Throwable> failure) {
+    try {
+      List<PgnGame> batch;
+      while ((batch = queue.take()) != END_OF_INPUT) {
+        if (failure.get() != null) {
+          continue;
+        }
+        try {
+          int imported = 0;
+          for (PgnGame pgnGame : batch) {
+            ChessGame game;
+            try {
+              game = pgnGame.replay();
+            }
+            catch (IllegalArgumentException e) {
+              skippedCount.incrementAndGet();
+              continue;
+            }
+            sink.accept(pgnGame, game);
+            imported++;
+          }
+          importedCount.addAndGet(imported);
+        }
+        catch (RuntimeException | Error e) {
+          failure.compareAndSet(null, e);
+        }
+      }
+    }
+    catch (InterruptedException e) {
+      // The import was abandoned
+    }
+  }
+}
@@ -0,0 +1,227 @@
+package chess;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads PGN (Portable Game Notation) one game at a time, so archives of any size are streamed
+ * with only the current game in memory.
+ * <p>
+ * Tag pairs and the main line are kept. Comments ({...} and ;...), variations (...), numeric
+ * annotation glyphs ($n), move numbers and "%" escape lines are skipped. A game ends at its
+ * result token, or when a new tag section starts after movetext without one.
+ */
+public final class PgnReader implements Closeable {
+
+  private static final String[] RESULTS = {"1-0", "0-1", "1/2-1/2", "*"};
+  private static final String NO_RESULT = "*";
+
+  private final Reader reader;
+  private int pushedBack = -1;
+  private int lastChar = '\n';
+  private boolean atLineStart;
+
+
+  /**
+   * Constructs a PgnReader object over UTF-8 text (which covers ASCII PGN as well).
+   *
+   * @param in  stream to read from
+   */
+  public PgnReader(InputStream in) {
+    this(new InputStreamReader(in, StandardCharsets.UTF_8));
+  }
+
+
+  /**
+   * Constructs a PgnReader object.
+   *
+   * @param reader  characters to read from; buffered here if it isn't already
+   */
+  public PgnReader(Reader reader) {
+    this.reader = (reader instanceof BufferedReader) ? reader : new BufferedReader(reader);
+  }
+
+
+  /**
+   * Reads the next game.
+   *
+   * @return  the next game, or null at the end of the input
+   * @throws IOException if reading fails
+   */
+  public PgnGame next() throws IOException {
+    Map<String, String> tags = new LinkedHashMap<>();
+    List<String> moves = new ArrayList<>();
+
+    int c;
+    while ((c = read()) != -1) {
+      if (Character.isWhitespace(c)) {
+        continue;
+      }
+      switch (c) {
+        case '[' -> {
+          if (!moves.isEmpty()) {
+            // A new game's tags: this one had no result token
+            unread(c);
+            return new PgnGame(tags, moves, NO_RESULT);
+          }
+          readTag(tags);
+        }
+        case '{' -> skipPast('}');
+        case ';' -> skipPast('\n');
+        case '(' -> skipVariation();
+        case '%' -> {
+          if (atLineStart) {
+            skipPast('\n');
+          }
+        }
+        default -> {
+          String token = readToken(c);
+          if (isResult(token)) {
+            return new PgnGame(tags, moves, token);
+          }
+          String san = stripMoveNumber(token);
+          if (!san.isEmpty() && !san.startsWith("$")) {
+            moves.add(san);
+          }
+        }
+      }
+    }
+    return (tags.isEmpty() && moves.isEmpty()) ? null : new PgnGame(tags, moves, NO_RESULT);
+  }
+
+
+  @Override
+  public void close() throws IOException {
+    reader.close();
+  }
+
+
+  /**
+   * Reads 'Name "value"]' after the opening bracket; '\' escapes a quote or backslash.
+   */
+  private void readTag(Map<String, String> tags) throws IOException {
+    StringBuilder name = new StringBuilder();
+    int c;
+    while ((c = read()) != -1 && c != '"' && c != ']') {
+      if (!Character.isWhitespace(c)) {
+        name.append((char) c);
+      }
+    }
+    StringBuilder value = new StringBuilder();
+    if (c == '"') {
+      while ((c = read()) != -1 && c != '"') {
+        if (c == '\\') {
+          c = read();
+        }
+        value.append((char) c);
+      }
+      skipPast(']');
+    }
+    tags.put(name.toString(), value.toString());
+  }
+
+
+  /**
+   * @return  the token starting with 'first', up to whitespace or a character that starts
+   *          something else (which is left unread)
+   */
+  private String readToken(int first) throws IOException {
+    StringBuilder token = new StringBuilder().append((char) first);
+    int c;
+    while ((c = read()) != -1 && !Character.isWhitespace(c) && "{}()[];".indexOf(c) == -1) {
+      token.append((char) c);
+    }
+    if (c != -1) {
+      unread(c);
+    }
+    return token.toString();
+  }
+
+
+  /**
+   * Skips a variation after its opening parenthesis, including nested ones and comments
+   * (which may hold parentheses of their own).
+   */
+  private void skipVariation() throws IOException {
+    int depth = 1;
+    int c;
+    while (depth > 0 && (c = read()) != -1) {
+      switch (c) {
+        case '(' -> depth++;
+        case ')' -> depth--;
+        case '{' -> skipPast('}');
+        case ';' -> skipPast('\n');
+        default -> { }
+      }
+    }
+  }
+
+  private void skipPast(char end) throws IOException {
+    int c;
+    do {
+      c = read();
+    } while (c != -1 && c != end);
+  }
+
+
+  private int read() throws IOException {
+    int c;
+    if (pushedBack != -1) {
+      c = pushedBack;
+      pushedBack = -1;
+    }
+    else {
+      c = reader.read();
+    }
+    atLineStart = (lastChar == '\n');
+    lastChar = c;
+    return c;
+  }
+
+  private void unread(int c) {
+    pushedBack = c;
+  }
+
+
+  private static boolean isResult(String token) {
+    for (String result : RESULTS) {
+      if (result.equals(token)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * @return  'token' without a leading move number such as "12." or "12...", and without
+   *          trailing annotation marks such as "!?"
+   */
+  private static String stripMoveNumber(String token) {
+    int start = 0;
+    while (start < token.length() && Character.isDigit(token.charAt(start))) {
+      start++;
+    }
+    if (start < token.length() && token.charAt(start) == '.') {
+      while (start < token.length() && token.charAt(start) == '.') {
+        start++;
+      }
+    }
+    else {
+      start = 0;
+    }
+    int end = token.length();
+    while (end > start && (token.charAt(end - 1) == '!' || token.charAt(end - 1) == '?')) {
+      end--;
+    }
+    return token.substring(start, end);
+  }
+}
@@ -0,0 +1,87 @@
+package chess;
+
+import java.util.Arrays;
+
+/**
+ * The squares occupied by one team's pieces, kept in a flat array so that it can be
+ * updated in O(1) on every add/remove and iterated without allocating.
+ * <p>
+ * Squares are indexed (row - 1) * 8 + (col - 1). Order is not stable: removing a square
+ * moves the last entry into its slot.
+ */
+final class PieceList {
+
+  private static final int SQUARE_COUNT = ChessConstants.BOARD_SIZE * ChessConstants.BOARD_SIZE;
+
+  private final int[] squares;
+  private final int[] indexOfSquare;
+  private int size;
+
+
+  /**
+   * Constructs an empty PieceList object.
+   */
+  PieceList() {
+    squares = new int[SQUARE_COUNT];
+    indexOfSquare = new int[SQUARE_COUNT];
+    Arrays.fill(indexOfSquare, -1);
+  }
+
+
+  /**
+   * Constructs a PieceList object by copying another.
+   *
+   * @param other piece list to be copied
+   */
+  PieceList(PieceList other) {
+    squares = other.squares.clone();
+    indexOfSquare = other.indexOfSquare.clone();
+    size = other.size;
+  }
+
+
+  /**
+   * @param square  square to add (ignored if already present)
+   */
+  void add(int square) {
+    if (indexOfSquare[square] != -1) {
+      return;
+    }
+    squares[size] = square;
+    indexOfSquare[square] = size;
+    size++;
+  }
+
+
+  /**
+   * @param square  square to remove (ignored if absent)
+   */
+  void remove(int square) {
+    int index = indexOfSquare[square];
+    if (index == -1) {
+      return;
+    }
+    size--;
+    int lastSquare = squares[size];
+    squares[index] = lastSquare;
+    indexOfSquare[lastSquare] = index;
+    indexOfSquare[square] = -1;
+  }
+
+
+  /**
+   * @return  number of squares in the list
+   */
+  int size() {
+    return size;
+  }
+
+
+  /**
+   * @param index position in the list (0 to size() - 1)
+   * @return      square stored at 'index'
+   */
+  int get(int index) {
+    return squares[index];
+  }
+}
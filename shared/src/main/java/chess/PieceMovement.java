@@ -1,6 +1,6 @@
 package chess;
 
-import java.util.*;
+import java.util.Collection;
 
 import static chess.ChessGame.TeamColor.*;
 
@@ -14,141 +14,188 @@ public interface PieceMovement {
    * @return set of all possible moves for the given board at the given position.
    */
   static Collection<ChessMove> getPossibleMoves(ChessBoard board, ChessPosition position) {
-    Collection<ChessMove> moves = new HashSet<>();
+    MoveList moves = new MoveList();
+    addPossibleMoves(board, position.toSquare(), moves);
+    return moves.asSet();
+  }
 
-    ChessPiece piece = board.getPiece(position);
-    if (piece == null) return moves;
+
+  /**
+   * Appends every possible move of the piece on 'square' to 'moves'; nothing if it is empty.
+   *
+   * @param board   chess board
+   * @param square  square index on the given chess board
+   * @param moves   list to append to
+   */
+  static void addPossibleMoves(ChessBoard board, int square, MoveList moves) {
+    ChessPiece piece = board.getPiece(square);
+    if (piece == null) return;
 
     switch (piece.getPieceType()) {
-      case KING -> moves = King.generateMoves(board, position);
-      case QUEEN -> moves = Queen.generateMoves(board, position);
-      case BISHOP -> moves = Bishop.generateMoves(board, position);
-      case ROOK -> moves = Rook.generateMoves(board, position);
-      case KNIGHT -> moves = Knight.generateMoves(board, position);
-      case PAWN -> moves = Pawn.generateMoves(board, position);
+      case KING -> King.generateMoves(board, square, moves);
+      case QUEEN -> Queen.generateMoves(board, square, moves);
+      case BISHOP -> Bishop.generateMoves(board, square, moves);
+      case ROOK -> Rook.generateMoves(board, square, moves);
+      case KNIGHT -> Knight.generateMoves(board, square, moves);
+      case PAWN -> Pawn.generateMoves(board, square, moves);
       default -> throw new IllegalArgumentException("Illegal PieceType accessed");
     }
-
-    return moves;
   }
 
 
   /**
-   * Generate all possible sliding moves for the given directions (queens, bishops, rooks).
-   * For each direction (int[] size 2), loop over extensions of that direction (dir * 1, dir * 2, etc.) in
-   * the form of relative moves. If the end position is: empty -> add & continue loop; friendly piece -> break extension loop;
-   * enemy piece -> add & break extension loop.
-   *
-   * @param directions  double array of directions to be checked
+   * @return set of all possible moves for the given bitboard at the given position.
    */
-  static Collection<ChessMove> generateDirectionalMoves(ChessBoard board, ChessPosition position, int[][] directions) {
-
-    Collection<ChessMove> moves = new HashSet<>();
+  static Collection<ChessMove> getPossibleMoves(ChessBitboard board, ChessPosition position) {
+    return board.pieceMoves(position);
+  }
 
-    for (int[] direction : directions) {
-      int rowOffset = direction[0];
-      int colOffset = direction[1];
 
-      int i = 1;
+  /**
+   * Generate all possible sliding moves along the given precomputed rays (queens, bishops, rooks).
+   * For each ray of the piece's square, walk its squares nearest first. If the square is: empty -> add & continue;
+   * friendly piece -> stop walking the ray; enemy piece -> add & stop walking the ray.
+   *
+   * @param board     chess board
+   * @param square    square index on given chess board
+   * @param rays      per-square rays from ChessConstants (ROOK_RAYS, BISHOP_RAYS or QUEEN_RAYS)
+   * @param moves     list to append to
+   */
+  static void generateDirectionalMoves(ChessBoard board, int square, int[][][] rays, MoveList moves) {
+    ChessGame.TeamColor color = board.getPiece(square).getTeamColor();
 
-      while (true) {
-        ChessMove move = new ChessMove(position, i * rowOffset, i * colOffset);
+    for (int[] ray : rays[square]) {
+      for (int target : ray) {
+        ChessPiece targetPiece = board.getPiece(target);
 
-        if (!(move.moveIsWithinBounds() && board.landsOnEmpty(move))) {
-          if (board.landsOnEnemy(move)) {
-            // Ends with enemy
-            moves.add(move);
-          }
-          // Ends with enemy or friend
-          break;
+        if (targetPiece == null) {
+          // Ends empty
+          moves.add(square, target);
+          continue;
+        }
+        if (targetPiece.getTeamColor() != color) {
+          // Ends with enemy
+          moves.add(square, target);
         }
-        // Ends empty
-        moves.add(move);
-        i++;
+        // Ends with enemy or friend
+        break;
       }
     }
-
-    return moves;
   }
 
 
   /**
-   * Generate all possible discrete moves for the given directions (kings and knights).
+   * Generate all possible discrete moves for the given precomputed targets (kings and knights).
    *
    * @param board       chess board
-   * @param position    position on given chess board
-   * @param directions  provided array of directions
+   * @param square      square index on given chess board
+   * @param targets     per-square targets from ChessConstants (KING_TARGETS or KNIGHT_TARGETS)
+   * @param moves       list to append to
    */
-  static Collection<ChessMove> generateDiscreteMoves(ChessBoard board, ChessPosition position, int[][] directions) {
-    Collection<ChessMove> moves = new HashSet<>();
-
-    for (int[] direction : directions) {
-      int rowOffset = direction[0];
-      int colOffset = direction[1];
+  static void generateDiscreteMoves(ChessBoard board, int square, int[][] targets, MoveList moves) {
+    ChessGame.TeamColor color = board.getPiece(square).getTeamColor();
 
-      ChessMove move = new ChessMove(position, rowOffset, colOffset);
-      if (board.validateMove(move)) {
-        moves.add(move);
+    for (int target : targets[square]) {
+      ChessPiece targetPiece = board.getPiece(target);
+      if (targetPiece == null || targetPiece.getTeamColor() != color) {
+        moves.add(square, target);
       }
     }
-
-    return moves;
   }
 }
 
 
 /**
- * Generate and return possible moves for the KING found at given position on the given board.
+ * Generate possible moves for the KING found  on the given square of the given board.
  */
 interface King extends PieceMovement {
-  static Collection<ChessMove> generateMoves(ChessBoard board, ChessPosition position) {
-    return PieceMovement.generateDiscreteMoves(board, position, ChessConstants.ALL_DIRECTIONS);
+  static void generateMoves(ChessBoard board, int square, MoveList moves) {
+    PieceMovement.generateDiscreteMoves(board, square, ChessConstants.KING_TARGETS, moves);
+    addCastlingMoves(board, square, moves);
+  }
+
+
+  /**
+   * Adds a castling move for every right the king on 'square' still has, provided the squares
+   * between king and rook are empty and the king is not in check and does not pass through an
+   * attacked square. Landing in check is left to the usual legality test.
+   *
+   * @param board   chess board
+   * @param square  square of the king
+   * @param moves   list to append to
+   */
+  private static void addCastlingMoves(ChessBoard board, int square, MoveList moves) {
+    int rights = board.getCastlingRights();
+    if (rights == 0) {
+      return;
+    }
+
+    ChessGame.TeamColor enemyColor = (board.getPiece(square).getTeamColor() == WHITE) ? BLACK : WHITE;
+    for (int castle = 0; castle < ChessConstants.CASTLING_RIGHTS.length; castle++) {
+      if ((rights & ChessConstants.CASTLING_RIGHTS[castle]) == 0 || ChessConstants.CASTLING_KING_FROM[castle] != square) {
+        continue;
+      }
+      if (allEmpty(board, ChessConstants.CASTLING_EMPTY_SQUARES[castle])
+              && !ChessRuleBook.isSquareAttacked(board, square, enemyColor)
+              && !ChessRuleBook.isSquareAttacked(board, ChessConstants.CASTLING_ROOK_TO[castle], enemyColor)) {
+        moves.add(square, ChessConstants.CASTLING_KING_TO[castle]);
+      }
+    }
+  }
+
+  private static boolean allEmpty(ChessBoard board, int[] squares) {
+    for (int square : squares) {
+      if (board.getPiece(square) != null) {
+        return false;
+      }
+    }
+    return true;
   }
 }
 
 
 /**
- * Generate and return possible moves for the QUEEN found at given position on the given board.
+ * Generate possible moves for the QUEEN found  on the given square of the given board.
  */
 interface Queen extends PieceMovement {
-  static Collection<ChessMove> generateMoves(ChessBoard board, ChessPosition position) {
-    return PieceMovement.generateDirectionalMoves(board, position, ChessConstants.ALL_DIRECTIONS);
+  static void generateMoves(ChessBoard board, int square, MoveList moves) {
+    PieceMovement.generateDirectionalMoves(board, square, ChessConstants.QUEEN_RAYS, moves);
   }
 }
 
 
 /**
- * Generate and return possible moves for the ROOK found at given position on the given board.
+ * Generate possible moves for the ROOK found  on the given square of the given board.
  */
 interface Rook extends PieceMovement {
-  static Collection<ChessMove> generateMoves(ChessBoard board, ChessPosition position) {
-    return PieceMovement.generateDirectionalMoves(board, position, ChessConstants.ROOK_DIRECTIONS);
+  static void generateMoves(ChessBoard board, int square, MoveList moves) {
+    PieceMovement.generateDirectionalMoves(board, square, ChessConstants.ROOK_RAYS, moves);
   }
 }
 
 
 /**
- * Generate and return possible moves for the BISHOP found at given position on the given board.
+ * Generate possible moves for the BISHOP found  on the given square of the given board.
  */
 interface Bishop extends PieceMovement {
-  static Collection<ChessMove> generateMoves(ChessBoard board, ChessPosition position) {
-    return PieceMovement.generateDirectionalMoves(board, position, ChessConstants.BISHOP_DIRECTIONS);
+  static void generateMoves(ChessBoard board, int square, MoveList moves) {
+    PieceMovement.generateDirectionalMoves(board, square, ChessConstants.BISHOP_RAYS, moves);
   }
 }
 
 
 /**
- * Generate and return possible moves for the KNIGHT found at given position on the given board.
+ * Generate possible moves for the KNIGHT found  on the given square of the given board.
  */
 interface Knight extends PieceMovement {
-  static Collection<ChessMove> generateMoves(ChessBoard board, ChessPosition position) {
-    return PieceMovement.generateDiscreteMoves(board, position, ChessConstants.KNIGHT_DIRECTIONS);
+  static void generateMoves(ChessBoard board, int square, MoveList moves) {
+    PieceMovement.generateDiscreteMoves(board, square, ChessConstants.KNIGHT_TARGETS, moves);
   }
 }
 
 
 /**
- * Generate and return possible moves for the PAWN found at given position on the given board.
+ * Generate possible moves for the PAWN found  on the given square of the given board.
  */
 interface Pawn extends PieceMovement {
 
@@ -156,100 +203,62 @@ interface Pawn extends PieceMovement {
    * Generates a pawn's moves.
    *
    * @param board     chess board
-   * @param position  position on given chess board which contains a pawn
-   * @return          Set of all possible moves for the pawn at 'position'
+   * @param square    square index on given chess board which contains a pawn
+   * @param moves     list to append to
    */
-  static Collection<ChessMove> generateMoves(ChessBoard board, ChessPosition position) {
-    Collection<ChessMove> moves = new HashSet<>();
-
-    ChessGame.TeamColor color = board.getPiece(position).getTeamColor();
+  static void generateMoves(ChessBoard board, int square, MoveList moves) {
+    ChessGame.TeamColor color = board.getPiece(square).getTeamColor();
 
     boolean pawnIsWhite = (color == WHITE);
     int direction  = pawnIsWhite ? 1 : -1;
-    boolean onStartRow = (pawnIsWhite ? 2 : 7) == position.getRow();
-    boolean onEndRow = (pawnIsWhite ? 7 : 2) == position.getRow();
-
-    if (onEndRow) {
-      moves.addAll(generatePromotionMoves(board, position, direction));
-    } else {
-      moves.addAll(generateNonPromotionMoves(board, position, direction, onStartRow));
+    int row = square / ChessConstants.BOARD_SIZE + 1;
+    boolean onStartRow = (pawnIsWhite ? 2 : 7) == row;
+    boolean onEndRow = (pawnIsWhite ? 7 : 2) == row;
+
+    // A pawn set up on the last row by hand has nowhere to go
+    int forwardRow = row + direction;
+    if (forwardRow < 1 || forwardRow > ChessConstants.BOARD_SIZE) {
+      return;
     }
 
-    return moves;
-  }
-
-
-  /**
-   * Generate pawn moves for a pawn that isn't about to promote.
-   *
-   * @param board       chess board
-   * @param position    position on the chess board
-   * @param direction   the direction in which the pawn is advancing
-   * @param onStartRow  if the pawn is found on the start row
-   * @return            the set of possible moves for the pawn
-   */
-  private static Collection<ChessMove> generateNonPromotionMoves(ChessBoard board, ChessPosition position, int direction, boolean onStartRow) {
-    Collection<ChessMove> moves = new HashSet<>();
-
-    ChessMove oneSquareMove = new ChessMove(position, direction, 0);
+    int forward = direction * ChessConstants.BOARD_SIZE;
 
-    if (board.validateMove(oneSquareMove)) {
-      moves.add(oneSquareMove);
+    if (board.getPiece(square + forward) == null) {
+      addPawnMove(moves, square, square + forward, onEndRow);
 
-      ChessMove doubleMove = new ChessMove(position, 2 * direction, 0);
-      if (onStartRow && board.validateMove(doubleMove)) {
-        moves.add(doubleMove);
+      int doubleSquare = square + 2 * forward;
+      if (onStartRow && board.getPiece(doubleSquare) == null) {
+        addPawnMove(moves, square, doubleSquare, false);
       }
     }
 
-    moves.addAll(generateSideMoves(board, position, direction));
-    return moves;
-  }
-
-
-  /**
-   * Generate the possible side moves for a pawn.
-   *
-   * @param board       chess board
-   * @param position    position on the chess board
-   * @param direction   the direction in which the pawn is advancing
-   * @return            the set of possible moves for the pawn
-   */
-  private static Collection<ChessMove> generateSideMoves(ChessBoard board, ChessPosition position, int direction) {
-    Collection<ChessMove> moves = new HashSet<>();
+    // The en passant square is only this pawn's to take if it lies on the row behind an enemy pawn
+    int enPassantSquare = board.getEnPassantSquare();
+    boolean canTakeEnPassant = enPassantSquare != -1 && enPassantSquare / ChessConstants.BOARD_SIZE == (pawnIsWhite ? 5 : 2);
 
-    for (int offset : new int[]{-1, 1}) {
-      ChessMove sideMove = new ChessMove(position, direction, offset);
-
-      if (board.validateMove(sideMove)) {
-        moves.add(sideMove);
+    for (int target : ChessConstants.PAWN_ATTACKS[color.ordinal()][square]) {
+      ChessPiece targetPiece = board.getPiece(target);
+      if ((targetPiece != null && targetPiece.getTeamColor() != color) || (canTakeEnPassant && target == enPassantSquare)) {
+        addPawnMove(moves, square, target, onEndRow);
       }
     }
-
-    return moves;
   }
 
 
   /**
-   * Generate pawn moves for a pawn that is about to promote.
+   * Adds a pawn move, expanded into one move per promotion type when it reaches the last row.
    *
-   * @param board       chess board
-   * @param position    position on the chess board
-   * @param direction   the direction in which the pawn is advancing
-   * @return            the set of possible moves for the pawn
+   * @param moves     list to append to
+   * @param square    start square of the pawn
+   * @param target    end square of the move
+   * @param promotes  if the move lands on the last row
    */
-  private static Collection<ChessMove> generatePromotionMoves(ChessBoard board, ChessPosition position, int direction) {
-    Collection<ChessMove> moves = new HashSet<>();
-
-    for (int offset : new int[]{-1, 0, 1}) {
-      ChessMove move = new ChessMove(position, direction, offset);
-      if (board.validateMove(move)) {
-        for (ChessPiece.PieceType piece : ChessConstants.PROMOTION_TYPES) {
-          moves.add(new ChessMove(position, direction, offset, piece));
-        }
-      }
+  private static void addPawnMove(MoveList moves, int square, int target, boolean promotes) {
+    if (promotes) {
+      moves.addPromotions(square, target);
+    }
+    else {
+      moves.add(square, target);
     }
-
-    return moves;
   }
 }
@@ -0,0 +1,77 @@
+package chess;
+
+import java.util.Arrays;
+
+/**
+ * Position keys (ChessGame.getZobristKey) of every position reached since the last irreversible
+ * move, oldest first, for repetition detection.
+ * <p>
+ * A capture or pawn move makes every earlier position unreachable, so the history is cleared
+ * then and never holds more entries than the halfmove clock allows. The array is reused across
+ * clears and only grows for long runs of reversible moves.
+ */
+final class PositionHistory {
+
+  private static final int INITIAL_CAPACITY = 32;
+
+  private long[] keys = new long[INITIAL_CAPACITY];
+  private int size;
+
+
+  /**
+   * @param key position key to append
+   */
+  void add(long key) {
+    if (size == keys.length) {
+      keys = Arrays.copyOf(keys, size * 2);
+    }
+    keys[size++] = key;
+  }
+
+
+  /**
+   * @return  number of positions recorded
+   */
+  int size() {
+    return size;
+  }
+
+
+  /**
+   * @param index position in the history (0 to size() - 1), oldest first
+   * @return      key of that position
+   */
+  long get(int index) {
+    return keys[index];
+  }
+
+
+  /**
+   * Forgets every position; called after an irreversible move.
+   */
+  void clear() {
+    size = 0;
+  }
+
+
+  /**
+   * Counts how often the latest position has occurred, including itself. Only every second
+   * entry can match, as the other half have the other side to move, so at most size / 2
+   * keys are compared.
+   *
+   * @return  number of occurrences of the latest position (0 if the history is empty)
+   */
+  int countLatest() {
+    if (size == 0) {
+      return 0;
+    }
+    long latestKey = keys[size - 1];
+    int count = 1;
+    for (int i = size - 3; i >= 0; i -= 2) {
+      if (keys[i] == latestKey) {
+        count++;
+      }
+    }
+    return count;
+  }
+}
@@ -0,0 +1,140 @@
+package chess;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * A bounded, thread-safe cache of legal move lists keyed by position hash (ChessGame.getZobristKey).
+ * <p>
+ * Entries are evicted least-recently-used once the capacity is reached. One shared instance serves
+ * every game in the JVM, so positions that come up again and again (e.g. popular openings) are only
+ * generated once. Cached lists are immutable and may be handed out to any number of callers.
+ */
+public class ValidMoveCache {
+
+  public static final int DEFAULT_CAPACITY = 16_384;
+
+  private static final ValidMoveCache SHARED = new ValidMoveCache(DEFAULT_CAPACITY);
+
+  private final int capacity;
+  private final Map<Long, List<ChessMove>> entries;
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+
+
+  /**
+   * Constructs an empty ValidMoveCache object.
+   *
+   * @param capacity  maximum number of positions kept
+   */
+  public ValidMoveCache(int capacity) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("Cache capacity must be positive");
+    }
+    this.capacity = capacity;
+    this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Long, List<ChessMove>> eldest) {
+        if (size() > ValidMoveCache.this.capacity) {
+          evictions.increment();
+          return true;
+        }
+        return false;
+      }
+    };
+  }
+
+
+  /**
+   * @return  the cache shared by every ChessGame in this JVM
+   */
+  public static ValidMoveCache getShared() {
+    return SHARED;
+  }
+
+
+  /**
+   * Returns the cached moves for a position, generating and storing them on a miss.
+   * Generation happens outside the lock, so two threads missing on the same key at once
+   * may both generate; the results are identical and the second simply replaces the first.
+   *
+   * @param positionKey   Zobrist key of the position (including side to move)
+   * @param generator     produces every legal move of the side to move
+   * @return              immutable list of legal moves
+   */
+  public List<ChessMove> get(long positionKey, Supplier<? extends Collection<ChessMove>> generator) {
+    List<ChessMove> moves;
+    synchronized (entries) {
+      moves = entries.get(positionKey);
+    }
+    if (moves != null) {
+      hits.increment();
+      return moves;
+    }
+
+    misses.increment();
+    List<ChessMove> generatedMoves = List.copyOf(generator.get());
+    synchronized (entries) {
+      entries.put(positionKey, generatedMoves);
+    }
+    return generatedMoves;
+  }
+
+
+  /**
+   * Removes every entry; the counters are left as they are.
+   */
+  public void clear() {
+    synchronized (entries) {
+      entries.clear();
+    }
+  }
+
+
+  /**
+   * @return  number of positions currently cached
+   */
+  public int size() {
+    synchronized (entries) {
+      return entries.size();
+    }
+  }
+
+
+  /**
+   * @return  maximum number of positions kept
+   */
+  public int getCapacity() {
+    return capacity;
+  }
+
+
+  /**
+   * @return  number of lookups answered from the cache
+   */
+  public long getHitCount() {
+    return hits.sum();
+  }
+
+
+  /**
+   * @return  number of lookups that had to generate moves
+   */
+  public long getMissCount() {
+    return misses.sum();
+  }
+
+
+  /**
+   * @return  number of entries dropped to stay within capacity
+   */
+  public long getEvictionCount() {
+    return evictions.sum();
+  }
+}
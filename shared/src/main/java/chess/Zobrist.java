@@ -0,0 +1,80 @@
+package chess;
+
+import java.util.SplittableRandom;
+
+/**
+ * Random 64-bit keys for Zobrist hashing of chess positions.
+ * <p>
+ * A position's key is the XOR of one key per (color, type, square) of every piece on the board,
+ * plus SIDE_TO_MOVE when black is to move, a key for the castling rights and, when an en passant
+ * capture is possible, a key for the file of the en passant square. Because XOR is its own
+ * inverse, placing or removing a piece updates the key with a single XOR. The keys come from a
+ * fixed seed so that the same position hashes identically in every JVM, which lets keys be
+ * stored and compared across runs.
+ */
+final class Zobrist {
+
+  private static final long SEED = 0x5DEECE66DL;
+
+  // [color.ordinal()][type.ordinal()][square]
+  private static final long[][][] PIECE_SQUARE_KEYS =
+          new long[ChessGame.TeamColor.values().length][ChessPiece.PieceType.values().length][ChessConstants.SQUARE_COUNT];
+
+  // [castling rights bits], and [file] of the en passant square
+  private static final long[] CASTLING_KEYS = new long[ChessConstants.ALL_CASTLING_RIGHTS + 1];
+  private static final long[] EN_PASSANT_KEYS = new long[ChessConstants.BOARD_SIZE];
+
+  static final long SIDE_TO_MOVE;
+
+  static {
+    SplittableRandom random = new SplittableRandom(SEED);
+    for (long[][] colorKeys : PIECE_SQUARE_KEYS) {
+      for (long[] typeKeys : colorKeys) {
+        for (int square = 0; square < typeKeys.length; square++) {
+          typeKeys[square] = random.nextLong();
+        }
+      }
+    }
+    SIDE_TO_MOVE = random.nextLong();
+
+    // Drawn after the keys above so that those keep their values
+    for (int rights = 1; rights < CASTLING_KEYS.length; rights++) {
+      CASTLING_KEYS[rights] = random.nextLong();
+    }
+    for (int file = 0; file < EN_PASSANT_KEYS.length; file++) {
+      EN_PASSANT_KEYS[file] = random.nextLong();
+    }
+  }
+
+
+  /**
+   * @param piece   piece on the board
+   * @param square  square index, (row - 1) * 8 + (col - 1)
+   * @return        key to XOR in (or out) for 'piece' standing on 'square'
+   */
+  static long pieceKey(ChessPiece piece, int square) {
+    return PIECE_SQUARE_KEYS[piece.getTeamColor().ordinal()][piece.getPieceType().ordinal()][square];
+  }
+
+
+  /**
+   * @param castlingRights  castling rights bits (ChessConstants.WHITE_KINGSIDE etc.)
+   * @return                key to XOR in for that set of rights (0 when there are none)
+   */
+  static long castlingKey(int castlingRights) {
+    return CASTLING_KEYS[castlingRights];
+  }
+
+
+  /**
+   * @param enPassantSquare en passant target square
+   * @return                key to XOR in when an en passant capture onto that square is possible
+   */
+  static long enPassantKey(int enPassantSquare) {
+    return EN_PASSANT_KEYS[enPassantSquare % ChessConstants.BOARD_SIZE];
+  }
+
+
+  // Private constructor to avoid compiler's implicit one
+  private Zobrist() { throw new AssertionError("Zobrist class should not be instantiated"); }
+}
@@ -0,0 +1,135 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static chess.ChessGame.TeamColor.BLACK;
+import static chess.ChessGame.TeamColor.WHITE;
+
+/**
+ * Lives in package chess because the undo stack (pushMove/popMove) is not public.
+ */
+class ChessBoardUndoTest {
+
+  private static final String SPECIAL_MOVES_FEN = "r3k3/7P/8/8/4p3/8/3P4/R3K2R w KQq - 0 1";
+
+  // Double push, en passant, both castlings, promotion and a capture of the new queen
+  private static final String[] SPECIAL_MOVES = {"d2d4", "e4d3", "e1g1", "e8c8", "h7h8=Q", "d8h8"};
+
+  private static final int PLIES = 150;
+
+
+  @Test
+  void pushPopTest() throws CloneNotSupportedException {
+    ChessBoard board = ChessGame.fromFen(SPECIAL_MOVES_FEN).getBoard();
+    ChessGame.TeamColor turn = WHITE;
+    List<ChessBoard> before = new ArrayList<>();
+
+    for (String move : SPECIAL_MOVES) {
+      before.add(board.clone());
+      board.pushMove(new ChessMove(move));
+      turn = opponent(turn);
+    }
+    Assertions.assertEquals("2k4r/8/8/8/8/3p4/8/R4RK1", board.toFen());
+
+    // Random play onward, well past the initial capacity of the undo stack
+    Random random = new Random(7);
+    MoveList moves = new MoveList();
+    while (before.size() < PLIES) {
+      moves.clear();
+      ChessRuleBook.generateLegalMoves(board, turn, moves);
+      if (moves.size() == 0) {
+        break;
+      }
+      before.add(board.clone());
+      board.pushMove(moves.get(random.nextInt(moves.size())));
+      turn = opponent(turn);
+    }
+    Assertions.assertTrue(before.size() > 64, "only " + before.size() + " plies were played");
+    Assertions.assertEquals(before.size(), board.getPushedMoveCount());
+
+    for (int ply = before.size() - 1; ply >= 0; ply--) {
+      board.popMove();
+      assertSameState(before.get(ply), board);
+    }
+    Assertions.assertEquals(0, board.getPushedMoveCount());
+    assertSameState(ChessGame.fromFen(SPECIAL_MOVES_FEN).getBoard(), board);
+  }
+
+
+  @Test
+  void emptyStackTest() {
+    ChessBoard board = new ChessBoard();
+    board.resetBoard();
+    Assertions.assertThrows(IllegalStateException.class, board::popMove);
+
+    board.pushMove(new ChessMove("e2e4"));
+    board.popMove();
+    Assertions.assertThrows(IllegalStateException.class, board::popMove);
+  }
+
+
+  @Test
+  void cloneTest() throws CloneNotSupportedException {
+    ChessBoard board = ChessGame.fromFen(SPECIAL_MOVES_FEN).getBoard();
+    ChessBoard start = board.clone();
+    board.pushMove(new ChessMove("d2d4"));
+    ChessBoard afterOne = board.clone();
+    board.pushMove(new ChessMove("e4d3"));
+    board.pushMove(new ChessMove("e1g1"));
+
+    // The copy takes its own stack, so either board can take its moves back alone
+    ChessBoard copy = board.clone();
+    Assertions.assertEquals(3, copy.getPushedMoveCount());
+    copy.popMove();
+    copy.popMove();
+    assertSameState(afterOne, copy);
+    copy.pushMove(new ChessMove("e4e3"));
+
+    assertSameState(ChessGame.fromFen("r3k3/7P/8/8/8/3p4/8/R4RK1 b q - 1 2").getBoard(), board);
+    board.popMove();
+    board.popMove();
+    board.popMove();
+    assertSameState(start, board);
+
+    copy.popMove();
+    copy.popMove();
+    assertSameState(start, copy);
+  }
+
+
+  /**
+   * Checks every part of the board that a move changes, incremental state included.
+   */
+  private static void assertSameState(ChessBoard expected, ChessBoard actual) {
+    String fen = expected.toFen();
+    Assertions.assertEquals(expected, actual, fen);
+    Assertions.assertEquals(expected.getZobristKey(), actual.getZobristKey(), fen);
+    Assertions.assertEquals(expected.getCastlingRights(), actual.getCastlingRights(), fen);
+    Assertions.assertEquals(expected.getEnPassantSquare(), actual.getEnPassantSquare(), fen);
+    Assertions.assertEquals(expected.getHalfmoveClock(), actual.getHalfmoveClock(), fen);
+    Assertions.assertEquals(expected.getEvaluation(WHITE), actual.getEvaluation(WHITE), fen);
+    for (ChessGame.TeamColor color : ChessGame.TeamColor.values()) {
+      Assertions.assertEquals(expected.getMaterial(color), actual.getMaterial(color), fen);
+      Assertions.assertEquals(expected.getKingSquare(color), actual.getKingSquare(color), fen);
+      Assertions.assertEquals(squares(expected.getPieceList(color)), squares(actual.getPieceList(color)), fen);
+    }
+  }
+
+  private static List<Integer> squares(PieceList pieceList) {
+    List<Integer> squares = new ArrayList<>();
+    for (int i = 0; i < pieceList.size(); i++) {
+      squares.add(pieceList.get(i));
+    }
+    squares.sort(null);
+    return squares;
+  }
+
+  private static ChessGame.TeamColor opponent(ChessGame.TeamColor color) {
+    return (color == WHITE) ? BLACK : WHITE;
+  }
+}
@@ -0,0 +1,103 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+/**
+ * Lives in package chess because the move tables are not public.
+ */
+class ChessConstantsTest {
+
+  private static final int A1 = square("a1");
+  private static final int H8 = square("h8");
+  private static final int A4 = square("a4");
+  private static final int E1 = square("e1");
+  private static final int D4 = square("d4");
+  private static final int B2 = square("b2");
+  private static final int WHITE = ChessGame.TeamColor.WHITE.ordinal();
+  private static final int BLACK = ChessGame.TeamColor.BLACK.ordinal();
+
+
+  @Test
+  void knightTargetsTest() {
+    Assertions.assertEquals(2, ChessConstants.KNIGHT_TARGETS[A1].length);
+    Assertions.assertEquals(2, ChessConstants.KNIGHT_TARGETS[H8].length);
+    Assertions.assertEquals(4, ChessConstants.KNIGHT_TARGETS[A4].length);
+    Assertions.assertEquals(4, ChessConstants.KNIGHT_TARGETS[B2].length);
+    Assertions.assertEquals(8, ChessConstants.KNIGHT_TARGETS[D4].length);
+    assertSquares(ChessConstants.KNIGHT_TARGETS[A1], "b3", "c2");
+    assertSquares(ChessConstants.KNIGHT_TARGETS[D4], "b3", "b5", "c2", "c6", "e2", "e6", "f3", "f5");
+  }
+
+
+  @Test
+  void kingTargetsTest() {
+    Assertions.assertEquals(3, ChessConstants.KING_TARGETS[A1].length);
+    Assertions.assertEquals(3, ChessConstants.KING_TARGETS[H8].length);
+    Assertions.assertEquals(5, ChessConstants.KING_TARGETS[A4].length);
+    Assertions.assertEquals(5, ChessConstants.KING_TARGETS[E1].length);
+    Assertions.assertEquals(8, ChessConstants.KING_TARGETS[D4].length);
+    assertSquares(ChessConstants.KING_TARGETS[A1], "a2", "b1", "b2");
+  }
+
+
+  @Test
+  void pawnAttacksTest() {
+    Assertions.assertEquals(1, ChessConstants.PAWN_ATTACKS[WHITE][A1].length);
+    Assertions.assertEquals(0, ChessConstants.PAWN_ATTACKS[WHITE][H8].length);
+    Assertions.assertEquals(0, ChessConstants.PAWN_ATTACKS[BLACK][A1].length);
+    Assertions.assertEquals(1, ChessConstants.PAWN_ATTACKS[BLACK][H8].length);
+    assertSquares(ChessConstants.PAWN_ATTACKS[WHITE][A4], "b5");
+    assertSquares(ChessConstants.PAWN_ATTACKS[BLACK][A4], "b3");
+    assertSquares(ChessConstants.PAWN_ATTACKS[WHITE][D4], "c5", "e5");
+    assertSquares(ChessConstants.PAWN_ATTACKS[BLACK][D4], "c3", "e3");
+  }
+
+
+  @Test
+  void rayLengthsTest() {
+    // Directions: up, right, down, left for rooks; up-right, down-right, up-left, down-left for bishops
+    assertRayLengths(ChessConstants.ROOK_RAYS[A1], 7, 7, 0, 0);
+    assertRayLengths(ChessConstants.ROOK_RAYS[D4], 4, 4, 3, 3);
+    assertRayLengths(ChessConstants.BISHOP_RAYS[A1], 7, 0, 0, 0);
+    assertRayLengths(ChessConstants.BISHOP_RAYS[D4], 4, 3, 3, 3);
+    assertRayLengths(ChessConstants.BISHOP_RAYS[H8], 0, 0, 0, 7);
+    assertSquares(ChessConstants.ROOK_RAYS[D4][0], "d5", "d6", "d7", "d8");
+
+    // Every rook move from any square is 14 squares; queen rays are the rook and bishop rays together
+    for (int square = 0; square < ChessConstants.SQUARE_COUNT; square++) {
+      Assertions.assertEquals(14, totalLength(ChessConstants.ROOK_RAYS[square]));
+      Assertions.assertEquals(totalLength(ChessConstants.ROOK_RAYS[square]) + totalLength(ChessConstants.BISHOP_RAYS[square]),
+              totalLength(ChessConstants.QUEEN_RAYS[square]));
+    }
+  }
+
+
+  @Test
+  void attackMasksTest() {
+    for (int square = 0; square < ChessConstants.SQUARE_COUNT; square++) {
+      Assertions.assertEquals(ChessConstants.KNIGHT_TARGETS[square].length, Long.bitCount(ChessConstants.KNIGHT_ATTACK_MASKS[square]));
+      Assertions.assertEquals(ChessConstants.KING_TARGETS[square].length, Long.bitCount(ChessConstants.KING_ATTACK_MASKS[square]));
+    }
+  }
+
+
+  private static int square(String algebraic) {
+    return new ChessPosition(algebraic).toSquare();
+  }
+
+  private static void assertSquares(int[] actual, String... expected) {
+    int[] expectedSquares = Arrays.stream(expected).mapToInt(ChessConstantsTest::square).sorted().toArray();
+    Assertions.assertArrayEquals(expectedSquares, Arrays.stream(actual).sorted().toArray());
+  }
+
+  private static void assertRayLengths(int[][] rays, int... expected) {
+    Assertions.assertArrayEquals(expected, Arrays.stream(rays).mapToInt(ray -> ray.length).toArray());
+  }
+
+  private static int totalLength(int[][] rays) {
+    return Arrays.stream(rays).mapToInt(ray -> ray.length).sum();
+  }
+}
@@ -0,0 +1,121 @@
+package chessTests;
+
+import chess.*;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+class BatchMoveValidatorTest {
+
+  @Test
+  void mixedBatchTest() throws InvalidMoveException {
+    ChessGame start = new ChessGame();
+    ChessGame afterE4 = new ChessGame();
+    afterE4.makeMove(new ChessMove("e2e4"));
+
+    List<ChessGame> positions = List.of(start, start, start, afterE4, afterE4, afterE4);
+    List<ChessMove> moves = List.of(
+            new ChessMove("e2e4"),
+            new ChessMove("e2e5"),    // too far
+            new ChessMove("e7e5"),    // not white's piece
+            new ChessMove("e7e5"),
+            new ChessMove("e4e5"),    // not black's turn
+            new ChessMove("e8e7"));   // own pawn there
+
+    boolean[] results = BatchMoveValidator.validate(positions, moves);
+    Assertions.assertArrayEquals(new boolean[] {true, false, false, true, false, false}, results);
+    Assertions.assertEquals("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1", afterE4.toFen());
+  }
+
+
+  @Test
+  void largeBatchMatchesSequentialTest() throws InvalidMoveException {
+    List<ChessGame> positions = new ArrayList<>();
+    List<ChessMove> moves = new ArrayList<>();
+    List<Boolean> expected = new ArrayList<>();
+
+    // Every from-to pair of a few random positions: mostly illegal, some legal
+    Random random = new Random(7);
+    ChessGame game = new ChessGame();
+    for (int ply = 0; ply < 6; ply++) {
+      ChessGame position = ChessGame.fromFen(game.toFen());
+      for (int start = 0; start < 64; start++) {
+        for (int end = 0; end < 64; end++) {
+          ChessMove move = new ChessMove(new ChessPosition(start / 8 + 1, start % 8 + 1), new ChessPosition(end / 8 + 1, end % 8 + 1), null);
+          positions.add(position);
+          moves.add(move);
+          expected.add(isAccepted(position, move));
+        }
+      }
+      List<ChessMove> legalMoves = legalMoves(game);
+      game.makeMove(legalMoves.get(random.nextInt(legalMoves.size())));
+    }
+
+    // Shuffle so that leaves see positions interleaved
+    List<Integer> order = new ArrayList<>();
+    for (int i = 0; i < moves.size(); i++) {
+      order.add(i);
+    }
+    Collections.shuffle(order, random);
+    List<ChessGame> shuffledPositions = new ArrayList<>();
+    List<ChessMove> shuffledMoves = new ArrayList<>();
+    for (int i : order) {
+      shuffledPositions.add(positions.get(i));
+      shuffledMoves.add(moves.get(i));
+    }
+
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      boolean[] results = BatchMoveValidator.validate(shuffledPositions, shuffledMoves, pool);
+      for (int i = 0; i < order.size(); i++) {
+        Assertions.assertEquals(expected.get(order.get(i)), results[i], shuffledMoves.get(i).toString());
+      }
+    }
+    finally {
+      pool.shutdown();
+    }
+  }
+
+
+  @Test
+  void replayTest() throws InvalidMoveException {
+    ChessGame game = ChessGame.fromFen("r3k2r/8/8/8/8/8/8/R3K2R w KQkq - 0 1");
+    game.makeMove(new ChessMove("e1g1"));
+    game.makeMove(new ChessMove("e8c8"));
+    game.makeMove(new ChessMove("f1f8"));
+
+    Assertions.assertArrayEquals(new int[] {BatchMoveValidator.ALL_MOVES_LEGAL, BatchMoveValidator.ALL_MOVES_LEGAL},
+            BatchMoveValidator.replay(List.of(game, new ChessGame())));
+  }
+
+
+  @Test
+  void mismatchedBatchTest() {
+    Assertions.assertThrows(IllegalArgumentException.class,
+            () -> BatchMoveValidator.validate(List.of(new ChessGame()), List.of()));
+  }
+
+
+  private static boolean isAccepted(ChessGame position, ChessMove move) {
+    try {
+      ChessGame.fromFen(position.toFen()).makeMove(move);
+      return true;
+    }
+    catch (InvalidMoveException e) {
+      return false;
+    }
+  }
+
+  private static List<ChessMove> legalMoves(ChessGame game) {
+    List<ChessMove> moves = new ArrayList<>();
+    for (ChessPosition position : game.getBoard().iterateForFriendlyPieces(game.getTeamTurn())) {
+      moves.addAll(game.validMoves(position));
+    }
+    return moves;
+  }
+}
@@ -0,0 +1,50 @@
+package chessTests;
+
+import chess.*;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class CastlingRightsTest {
+
+  @Test
+  void rightsFollowMovesTest() throws InvalidMoveException {
+    ChessGame game = ChessGame.fromFen("r3k2r/8/8/8/8/8/8/R3K2R w KQkq - 0 1");
+
+    game.makeMove(new ChessMove("h1h8"));   // rook takes rook: both king side rights go
+    Assertions.assertEquals("r3k2R/8/8/8/8/8/8/R3K3 b Qq - 0 1", game.toFen());
+
+    game.makeMove(new ChessMove("e8d7"));
+    Assertions.assertEquals(ChessConstants.WHITE_QUEENSIDE, game.getBoard().getCastlingRights());
+  }
+
+
+  @Test
+  void castlingMovesRookTest() throws InvalidMoveException {
+    ChessGame game = ChessGame.fromFen("r3k2r/8/8/8/8/8/8/R3K2R b KQkq - 3 10");
+    game.makeMove(new ChessMove("e8c8"));
+
+    Assertions.assertEquals("2kr3r/8/8/8/8/8/8/R3K2R w KQ - 4 11", game.toFen());
+    Assertions.assertEquals(java.util.List.of("O-O-O"), game.getSanHistory());
+  }
+
+
+  @Test
+  void positionKeyIncludesStateTest() throws InvalidMoveException {
+    ChessGame withRights = ChessGame.fromFen("r3k2r/8/8/8/8/8/8/R3K2R w KQkq - 0 1");
+    ChessGame withoutRights = ChessGame.fromFen("r3k2r/8/8/8/8/8/8/R3K2R w Kkq - 0 1");
+    Assertions.assertNotEquals(withRights.getZobristKey(), withoutRights.getZobristKey());
+    Assertions.assertNotEquals(withRights, withoutRights);
+    Assertions.assertEquals(withRights.getBoard(), withoutRights.getBoard());
+
+    // An en passant square no pawn can take from doesn't change the key
+    ChessGame noCapture = ChessGame.fromFen("4k3/8/8/8/4P3/8/8/4K3 b - e3 0 1");
+    ChessGame noSquare = ChessGame.fromFen("4k3/8/8/8/4P3/8/8/4K3 b - - 0 1");
+    Assertions.assertEquals(noSquare.getZobristKey(), noCapture.getZobristKey());
+
+    ChessGame capture = ChessGame.fromFen("4k3/8/8/8/3pP3/8/8/4K3 b - e3 0 1");
+    ChessGame captureGone = ChessGame.fromFen("4k3/8/8/8/3pP3/8/8/4K3 b - - 0 1");
+    Assertions.assertNotEquals(captureGone.getZobristKey(), capture.getZobristKey());
+    Assertions.assertTrue(capture.validMoves(new ChessPosition(4, 4)).contains(new ChessMove("d4e3")));
+    Assertions.assertFalse(captureGone.validMoves(new ChessPosition(4, 4)).contains(new ChessMove("d4e3")));
+  }
+}
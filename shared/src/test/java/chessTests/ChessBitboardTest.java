@@ -0,0 +1,146 @@
+package chessTests;
+
+import chess.*;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static chess.ChessGame.TeamColor.BLACK;
+import static chess.ChessGame.TeamColor.WHITE;
+
+class ChessBitboardTest {
+
+  @Test
+  void roundTripTest() {
+    for (String fen : new String[] {
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+            "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+            "n1n5/PPPk4/8/8/8/8/4Kppp/5N1N b - - 0 1"}) {
+      ChessBoard board = ChessGame.fromFen(fen).getBoard();
+      ChessBitboard bitboard = ChessBitboard.fromChessBoard(board);
+      Assertions.assertEquals(board, bitboard.toChessBoard(), fen);
+      Assertions.assertEquals(bitboard, ChessBitboard.fromChessBoard(bitboard.toChessBoard()), fen);
+      Assertions.assertEquals(bitboard, new ChessBitboard(bitboard), fen);
+
+      long occupancy = 0;
+      for (int square = 0; square < 64; square++) {
+        ChessPiece piece = bitboard.getPiece(square);
+        Assertions.assertEquals(board.getPiece(ChessBitboard.positionOf(square)), piece, fen);
+        if (piece != null) {
+          occupancy |= 1L << square;
+          Assertions.assertNotEquals(0, bitboard.getPieces(piece.getTeamColor(), piece.getPieceType()) & 1L << square);
+        }
+      }
+      Assertions.assertEquals(occupancy, bitboard.getOccupancy(), fen);
+      Assertions.assertEquals(occupancy, bitboard.getOccupancy(WHITE) | bitboard.getOccupancy(BLACK), fen);
+      Assertions.assertEquals(0, bitboard.getOccupancy(WHITE) & bitboard.getOccupancy(BLACK), fen);
+    }
+  }
+
+
+  @Test
+  void perftMatchesChessBoardTest() {
+    // No castling rights, and depths too shallow for an en passant capture: the bitboard
+    // generates neither
+    Assertions.assertEquals(197_281, bitboardPerft(new ChessGame(), 4));
+    ChessGame kiwipete = ChessGame.fromFen("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w - - 0 1");
+    Assertions.assertEquals(Perft.perft(kiwipete, 1), bitboardPerft(kiwipete, 1));
+    for (String fen : new String[] {
+            "n1n5/PPPk4/8/8/8/8/4Kppp/5N1N b - - 0 1",
+            "r2q1rk1/pP1p2pp/Q4n2/bbp1p3/Np6/1B3NBn/pPPP1PPP/R3K2R w - - 0 1",
+            "8/8/8/1k6/3q4/8/3R4/3K4 w - - 0 1"}) {
+      ChessGame game = ChessGame.fromFen(fen);
+      Assertions.assertEquals(Perft.perft(game, 2), bitboardPerft(game, 2), fen);
+    }
+    ChessGame promotions = ChessGame.fromFen("n1n5/PPPk4/8/8/8/8/4Kppp/5N1N b - - 0 1");
+    Assertions.assertEquals(Perft.perft(promotions, 3), bitboardPerft(promotions, 3));
+  }
+
+
+  @Test
+  void validMovesMatchChessGameTest() {
+    // A pinned knight, a king in check and a pinned pawn that may still capture along the pin
+    ChessGame game = ChessGame.fromFen("4k3/8/8/1b6/8/3N4/4K3/8 w - - 0 1");
+    ChessBitboard bitboard = ChessBitboard.fromChessBoard(game.getBoard());
+    Assertions.assertTrue(bitboard.validMoves(new ChessPosition(3, 4)).isEmpty());
+    Assertions.assertEquals(Set.copyOf(game.validMoves(new ChessPosition(2, 5))),
+            Set.copyOf(bitboard.validMoves(new ChessPosition(2, 5))));
+
+    ChessGame pinnedPawn = ChessGame.fromFen("4k3/8/8/8/1b6/2P5/8/4K3 w - - 0 1");
+    bitboard = ChessBitboard.fromChessBoard(pinnedPawn.getBoard());
+    Assertions.assertEquals(Set.of(new ChessMove("c3b4")), Set.copyOf(bitboard.validMoves(new ChessPosition(3, 3))));
+    Assertions.assertTrue(bitboard.validMoves(new ChessPosition(5, 5)).isEmpty());
+  }
+
+
+  @Test
+  void attacksTest() {
+    ChessBitboard bitboard = ChessBitboard.fromChessBoard(
+            ChessGame.fromFen("4k3/8/8/3p4/8/1N6/8/R3K3 w - - 0 1").getBoard());
+    int d4 = square("d4");
+    Assertions.assertTrue(bitboard.isSquareAttacked(square("c4"), BLACK));   // pawn d5
+    Assertions.assertTrue(bitboard.isSquareAttacked(square("e4"), BLACK));
+    Assertions.assertFalse(bitboard.isSquareAttacked(d4, BLACK));            // pawns don't attack forward
+    Assertions.assertTrue(bitboard.isSquareAttacked(d4, WHITE));             // knight b3
+    Assertions.assertTrue(bitboard.isSquareAttacked(square("a8"), WHITE));   // rook a1 up the file
+    Assertions.assertTrue(bitboard.isSquareAttacked(square("d1"), WHITE));   // rook and king
+    Assertions.assertFalse(bitboard.isSquareAttacked(square("h1"), BLACK));
+    Assertions.assertTrue(bitboard.isSquareAttacked(square("d7"), BLACK));   // king e8
+    Assertions.assertFalse(bitboard.isInCheck(WHITE));
+    Assertions.assertFalse(bitboard.isInCheck(BLACK));
+
+    // A rook ray stops at the first piece of either color
+    bitboard.addPiece(new ChessPosition(4, 1), ChessPiece.of(BLACK, ChessPiece.PieceType.KNIGHT));
+    Assertions.assertFalse(bitboard.isSquareAttacked(square("a8"), WHITE));
+    Assertions.assertTrue(bitboard.isSquareAttacked(square("a4"), WHITE));
+
+    bitboard.addPiece(new ChessPosition(1, 8), ChessPiece.of(BLACK, ChessPiece.PieceType.ROOK));
+    Assertions.assertTrue(bitboard.isInCheck(WHITE));
+  }
+
+
+  @Test
+  void promotionTest() {
+    ChessBitboard bitboard = ChessBitboard.fromChessBoard(ChessGame.fromFen("1r2k3/P7/8/8/8/8/8/4K3 w - - 0 1").getBoard());
+    Set<ChessMove> moves = new HashSet<>(bitboard.pieceMoves(new ChessPosition(7, 1)));
+    Assertions.assertEquals(8, moves.size());
+    Assertions.assertTrue(moves.contains(new ChessMove("a7b8=N")));
+
+    bitboard.makeMove(new ChessMove("a7b8=N"));
+    Assertions.assertEquals(ChessPiece.of(WHITE, ChessPiece.PieceType.KNIGHT), bitboard.getPiece(square("b8")));
+    Assertions.assertNull(bitboard.getPiece(square("a7")));
+    Assertions.assertEquals(0, bitboard.getPieces(BLACK, ChessPiece.PieceType.ROOK));
+    Assertions.assertEquals(0, bitboard.getPieces(WHITE, ChessPiece.PieceType.PAWN));
+    Assertions.assertEquals(1L << square("b8"), bitboard.getPieces(WHITE, ChessPiece.PieceType.KNIGHT));
+  }
+
+
+  private static int square(String algebraic) {
+    return (algebraic.charAt(1) - '1') * 8 + (algebraic.charAt(0) - 'a');
+  }
+
+  private static long bitboardPerft(ChessGame game, int depth) {
+    return bitboardPerft(ChessBitboard.fromChessBoard(game.getBoard()), game.getTeamTurn(), depth);
+  }
+
+  private static long bitboardPerft(ChessBitboard bitboard, ChessGame.TeamColor turn, int depth) {
+    if (depth == 0) {
+      return 1;
+    }
+    long nodes = 0;
+    for (int square = 0; square < 64; square++) {
+      ChessPiece piece = bitboard.getPiece(square);
+      if (piece == null || piece.getTeamColor() != turn) {
+        continue;
+      }
+      for (ChessMove move : bitboard.validMoves(ChessBitboard.positionOf(square))) {
+        ChessBitboard next = new ChessBitboard(bitboard);
+        next.makeMove(move);
+        nodes += bitboardPerft(next, (turn == WHITE) ? BLACK : WHITE, depth - 1);
+      }
+    }
+    return nodes;
+  }
+}
@@ -0,0 +1,96 @@
+package chessTests;
+
+import chess.*;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static passoffTests.TestFactory.loadBoard;
+
+class ChessCodecTest {
+
+  // n1n5/PPPk4/8/8/8/8/4Kppp/5N1N b - -
+  private static final String PROMOTIONS = """
+          |n| |n| | | | | |
+          |P|P|P|k| | | | |
+          | | | | | | | | |
+          | | | | | | | | |
+          | | | | | | | | |
+          | | | | | | | | |
+          | | | | |K|p|p|p|
+          | | | | | |N| |N|
+          """;
+
+
+  @Test
+  void moveRoundTripTest() {
+    ChessGame game = new ChessGame(loadBoard(PROMOTIONS), ChessGame.TeamColor.BLACK);
+    List<ChessMove> moves = allValidMoves(game);
+    Assertions.assertEquals(24, moves.size());
+
+    for (ChessMove move : moves) {
+      Assertions.assertEquals(move, ChessMove.decode(move.encode()));
+    }
+    Assertions.assertArrayEquals(moves.toArray(), ChessCodec.decodeMoves(ChessCodec.encodeMoves(moves)));
+  }
+
+
+  @Test
+  void moveEncodingLayoutTest() {
+    ChessMove move = new ChessMove("b7a8=N");
+    Assertions.assertEquals(ChessPiece.PieceType.KNIGHT, move.getPromotionPiece());
+    Assertions.assertEquals((short) (49 | 56 << 6 | 4 << 12), move.encode());
+    Assertions.assertSame(ChessMove.of(new ChessPosition(2, 5), new ChessPosition(4, 5)), ChessMove.decode((short) (12 | 28 << 6)));
+  }
+
+
+  @Test
+  void badMoveCodeTest() {
+    Assertions.assertThrows(IllegalArgumentException.class, () -> ChessMove.decode((short) (5 << 12)));
+    Assertions.assertThrows(IllegalArgumentException.class, () -> ChessCodec.decodeMoves(new byte[3]));
+    Assertions.assertThrows(IllegalStateException.class,
+            () -> new ChessMove(new ChessPosition(7, 1), new ChessPosition(8, 1), ChessPiece.PieceType.KING).encode());
+  }
+
+
+  @Test
+  void positionRoundTripTest() {
+    ChessGame startGame = new ChessGame();
+    byte[] startBytes = ChessCodec.encodePosition(startGame);
+    Assertions.assertEquals(27, startBytes.length);
+    Assertions.assertEquals(startGame, ChessCodec.decodePosition(startBytes));
+
+    ChessGame enPassantGame = ChessGame.fromFen("r3k2r/8/8/8/3pP3/8/8/R3K2R b Kq e3 0 1");
+    ChessGame decodedEnPassantGame = ChessCodec.decodePosition(ChessCodec.encodePosition(enPassantGame));
+    Assertions.assertEquals(enPassantGame.toFen(), decodedEnPassantGame.toFen());
+    Assertions.assertEquals(enPassantGame.getZobristKey(), decodedEnPassantGame.getZobristKey());
+
+    ChessGame promotionGame = new ChessGame(loadBoard(PROMOTIONS), ChessGame.TeamColor.BLACK);
+    ChessGame decodedGame = ChessCodec.decodePosition(ChessCodec.encodePosition(promotionGame));
+    Assertions.assertEquals(promotionGame, decodedGame);
+    Assertions.assertEquals(ChessGame.TeamColor.BLACK, decodedGame.getTeamTurn());
+  }
+
+
+  @Test
+  void badPositionTest() {
+    byte[] bytes = ChessCodec.encodePosition(new ChessGame());
+    Assertions.assertThrows(IllegalArgumentException.class, () -> ChessCodec.decodePosition(Arrays.copyOf(bytes, 26)));
+    Assertions.assertThrows(IllegalArgumentException.class, () -> ChessCodec.decodePosition(new byte[2]));
+
+    bytes[0]++;
+    Assertions.assertThrows(IllegalArgumentException.class, () -> ChessCodec.decodePosition(bytes));
+  }
+
+
+  private static List<ChessMove> allValidMoves(ChessGame game) {
+    List<ChessMove> moves = new ArrayList<>();
+    for (ChessPosition position : game.getBoard().iterateForFriendlyPieces(game.getTeamTurn())) {
+      moves.addAll(game.validMoves(position));
+    }
+    return moves;
+  }
+}
@@ -0,0 +1,146 @@
+package chessTests;
+
+import chess.ChessEngine;
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.InvalidMoveException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class ChessEngineTest {
+
+  private static final long BUDGET_MILLIS = 2_000;
+
+
+  @Test
+  void mateInOneTest() {
+    ChessGame game = ChessGame.fromFen("6k1/5ppp/8/8/8/8/5PPP/R5K1 w - - 0 1");
+    ChessEngine engine = new ChessEngine();
+    Assertions.assertEquals(new ChessMove("a1a8"), engine.findBestMove(game, 4, BUDGET_MILLIS));
+    Assertions.assertTrue(engine.getLastScore() > 90_000);
+  }
+
+
+  @Test
+  void mateInTwoTest() {
+    // Rook ladder: 1. Rb7 Kg8 2. Ra8#
+    ChessGame game = ChessGame.fromFen("7k/8/8/8/8/8/1R6/R5K1 w - - 0 1");
+    ChessEngine engine = new ChessEngine();
+    ChessMove move = engine.findBestMove(game, 6, BUDGET_MILLIS);
+    Assertions.assertTrue(engine.getLastScore() > 90_000, "score " + engine.getLastScore() + " for " + move);
+  }
+
+
+  @Test
+  void winsHangingQueenTest() {
+    ChessGame game = ChessGame.fromFen("rnb1kbnr/pppp1ppp/8/4p1q1/3P4/8/PPP1PPPP/RNBQKBNR w KQkq - 0 3");
+    ChessEngine engine = new ChessEngine();
+    Assertions.assertEquals(new ChessMove("c1g5"), engine.findBestMove(game, 4, BUDGET_MILLIS));
+  }
+
+
+  @Test
+  void avoidsLosingCaptureTest() {
+    // The pawn on d5 is defended by the one on e6, so Qxd5 loses the queen
+    ChessGame game = ChessGame.fromFen("4k3/8/4p3/3p4/8/8/3Q4/4K3 w - - 0 1");
+    ChessEngine engine = new ChessEngine();
+    Assertions.assertNotEquals(new ChessMove("d2d5"), engine.findBestMove(game, 3, BUDGET_MILLIS));
+  }
+
+
+  @Test
+  void multiThreadedSearchTest() {
+    ChessGame mateInOne = ChessGame.fromFen("6k1/5ppp/8/8/8/8/5PPP/R5K1 w - - 0 1");
+    ChessGame hangingQueen = ChessGame.fromFen("rnb1kbnr/pppp1ppp/8/4p1q1/3P4/8/PPP1PPPP/RNBQKBNR w KQkq - 0 3");
+    try (ChessEngine engine = new ChessEngine(ChessEngine.DEFAULT_TABLE_BITS, 4)) {
+      Assertions.assertEquals(new ChessMove("a1a8"), engine.findBestMove(mateInOne, 4, BUDGET_MILLIS));
+      for (int i = 0; i < 5; i++) {
+        Assertions.assertEquals(new ChessMove("c1g5"), engine.findBestMove(hangingQueen, 5, BUDGET_MILLIS));
+        Assertions.assertEquals(5, engine.getLastDepth());
+      }
+    }
+    Assertions.assertThrows(IllegalArgumentException.class, () -> new ChessEngine(ChessEngine.DEFAULT_TABLE_BITS, 0));
+  }
+
+
+  @Test
+  void closeTest() {
+    ChessGame mateInOne = ChessGame.fromFen("6k1/5ppp/8/8/8/8/5PPP/R5K1 w - - 0 1");
+    ChessEngine engine = new ChessEngine(ChessEngine.DEFAULT_TABLE_BITS, 2);
+    engine.close();
+    Assertions.assertThrows(IllegalStateException.class, () -> engine.findBestMove(mateInOne, 2, BUDGET_MILLIS));
+
+    // Single-threaded engines own no threads, so closing leaves them usable
+    ChessEngine singleThreaded = new ChessEngine();
+    singleThreaded.close();
+    Assertions.assertEquals(new ChessMove("a1a8"), singleThreaded.findBestMove(mateInOne, 2, BUDGET_MILLIS));
+  }
+
+
+  @Test
+  void gameOverTest() {
+    ChessGame mated = ChessGame.fromFen("rnb1kbnr/pppp1ppp/8/4p3/6Pq/5P2/PPPPP2P/RNBQKBNR w KQkq - 1 3");
+    Assertions.assertNull(new ChessEngine().findBestMove(mated, 100));
+
+    ChessGame matedInCorner = ChessGame.fromFen("7k/8/8/8/8/8/r7/1r5K w - - 0 1");
+    Assertions.assertNull(new ChessEngine().findBestMove(matedInCorner, 100));
+
+    ChessGame stalemated = ChessGame.fromFen("6rk/8/8/8/8/8/r7/7K w - - 0 1");
+    Assertions.assertNull(new ChessEngine().findBestMove(stalemated, 100));
+  }
+
+
+  @Test
+  void onlyMoveTest() {
+    // In check from a1; every escape but taking the g2 rook is covered
+    ChessGame onlyMove = ChessGame.fromFen("7k/8/8/8/8/8/6r1/r6K w - - 0 1");
+    Assertions.assertEquals(new ChessMove("h1g2"), new ChessEngine().findBestMove(onlyMove, 100));
+  }
+
+
+  @Test
+  void noTimeLimitTest() {
+    // A budget too large to add to the clock must still let every iteration finish
+    ChessGame middlegame = ChessGame.fromFen("r1bqkb1r/pppp1ppp/2n2n2/4p3/2B1P3/5N2/PPPP1PPP/RNBQK2R w KQkq - 4 4");
+    ChessEngine engine = new ChessEngine();
+    Assertions.assertNotNull(engine.findBestMove(middlegame, 4, ChessEngine.NO_TIME_LIMIT));
+    Assertions.assertEquals(4, engine.getLastDepth());
+
+    engine.clear();
+    Assertions.assertNotNull(engine.findBestMove(middlegame, 4, Long.MAX_VALUE / 1_000_000));
+    Assertions.assertEquals(4, engine.getLastDepth());
+  }
+
+
+  @Test
+  void timeBudgetTest() throws InvalidMoveException {
+    ChessGame game = new ChessGame();
+    String fen = game.toFen();
+    ChessEngine engine = new ChessEngine();
+
+    long startTime = System.nanoTime();
+    ChessMove move = engine.findBestMove(game, 20);
+    long elapsedMillis = (System.nanoTime() - startTime) / 1_000_000;
+
+    Assertions.assertTrue(elapsedMillis < 500, "took " + elapsedMillis + " ms");
+    Assertions.assertTrue(engine.getLastDepth() >= 1);
+    Assertions.assertEquals(fen, game.toFen());
+    game.makeMove(move);
+  }
+
+
+  @Test
+  void avoidsRepetitionWhenWinningTest() throws InvalidMoveException {
+    // White is a queen up; returning to a position seen before would only throw that away
+    ChessGame game = ChessGame.fromFen("7k/8/8/8/8/Q7/8/6K1 w - - 0 1");
+    game.makeMove(new ChessMove("g1f2"));
+    game.makeMove(new ChessMove("h8g8"));
+    game.makeMove(new ChessMove("f2g1"));
+    game.makeMove(new ChessMove("g8h8"));
+
+    ChessEngine engine = new ChessEngine();
+    ChessMove move = engine.findBestMove(game, 4, BUDGET_MILLIS);
+    Assertions.assertNotEquals(new ChessMove("g1f2"), move);
+    Assertions.assertTrue(engine.getLastScore() > 500);
+  }
+}
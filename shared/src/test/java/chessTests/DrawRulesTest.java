@@ -0,0 +1,78 @@
+package chessTests;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.InvalidMoveException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class DrawRulesTest {
+
+  @Test
+  void fiftyMoveRuleTest() throws InvalidMoveException {
+    ChessGame game = ChessGame.fromFen("4k3/8/8/8/8/8/4P3/R3K3 w - - 98 80");
+    Assertions.assertFalse(game.isFiftyMoveRuleDraw());
+
+    game.makeMove(new ChessMove("a1a2"));
+    Assertions.assertFalse(game.isFiftyMoveRuleDraw());
+    game.makeMove(new ChessMove("e8d8"));
+    Assertions.assertTrue(game.isFiftyMoveRuleDraw());
+    Assertions.assertEquals("3k4/8/8/8/8/8/R3P3/4K3 w - - 100 81", game.toFen());
+  }
+
+
+  @Test
+  void pawnMoveResetsClockTest() throws InvalidMoveException {
+    ChessGame game = ChessGame.fromFen("4k3/8/8/8/8/8/4P3/R3K3 w - - 99 80");
+    game.makeMove(new ChessMove("e2e4"));
+
+    Assertions.assertFalse(game.isFiftyMoveRuleDraw());
+    Assertions.assertEquals("4k3/8/8/8/4P3/8/8/R3K3 b - e3 0 80", game.toFen());
+  }
+
+
+  @Test
+  void threefoldRepetitionTest() throws InvalidMoveException {
+    ChessGame game = new ChessGame();
+    String[] knightShuffle = {"g1f3", "g8f6", "f3g1", "f6g8"};
+
+    playMoves(game, knightShuffle);
+    Assertions.assertFalse(game.isThreefoldRepetition());
+    playMoves(game, knightShuffle);
+    Assertions.assertTrue(game.isThreefoldRepetition());
+
+    game.makeMove(new ChessMove("e2e4"));
+    Assertions.assertFalse(game.isThreefoldRepetition());
+  }
+
+
+  @Test
+  void irreversibleMoveClearsRepetitionsTest() throws InvalidMoveException {
+    ChessGame game = new ChessGame();
+    playMoves(game, "g1f3", "g8f6", "f3g1", "f6g8", "e2e4", "e7e5");
+    playMoves(game, "g1f3", "g8f6", "f3g1", "f6g8");
+    Assertions.assertFalse(game.isThreefoldRepetition());
+
+    playMoves(game, "g1f3", "g8f6", "f3g1", "f6g8");
+    Assertions.assertTrue(game.isThreefoldRepetition());
+  }
+
+
+  @Test
+  void lostCastlingRightsChangePositionTest() throws InvalidMoveException {
+    ChessGame game = ChessGame.fromFen("r3k2r/8/8/8/8/8/8/R3K2R w KQkq - 0 1");
+    playMoves(game, "e1f1", "e8f8", "f1e1", "f8e8");
+    playMoves(game, "e1f1", "e8f8", "f1e1", "f8e8");
+    Assertions.assertFalse(game.isThreefoldRepetition());
+
+    playMoves(game, "e1f1", "e8f8", "f1e1", "f8e8");
+    Assertions.assertTrue(game.isThreefoldRepetition());
+  }
+
+
+  private static void playMoves(ChessGame game, String... moves) throws InvalidMoveException {
+    for (String move : moves) {
+      game.makeMove(new ChessMove(move));
+    }
+  }
+}
@@ -0,0 +1,62 @@
+package chessTests;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPiece;
+import chess.ChessPosition;
+import chess.InvalidMoveException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import static chess.ChessGame.TeamColor.BLACK;
+import static chess.ChessGame.TeamColor.WHITE;
+
+class EvaluationTest {
+
+  @Test
+  void startPositionTest() {
+    ChessBoard board = new ChessGame().getBoard();
+    Assertions.assertEquals(8 * 100 + 2 * 320 + 2 * 330 + 2 * 500 + 900, board.getMaterial(WHITE));
+    Assertions.assertEquals(board.getMaterial(WHITE), board.getMaterial(BLACK));
+    Assertions.assertEquals(0, board.getEvaluation(WHITE));
+    Assertions.assertEquals(0, board.getEvaluation(BLACK));
+  }
+
+
+  @Test
+  void mirroredPositionsTest() {
+    // Colors swapped and board flipped: each side should see the same score
+    ChessBoard board = ChessGame.fromFen("r1bqkb1r/pppp1ppp/2n2n2/4p3/2B1P3/5N2/PPPP1PPP/RNBQK2R w KQkq - 4 4").getBoard();
+    ChessBoard mirrored = ChessGame.fromFen("rnbqk2r/pppp1ppp/5n2/2b1p3/4P3/2N2N2/PPPP1PPP/R1BQKB1R b KQkq - 4 4").getBoard();
+    Assertions.assertEquals(board.getEvaluation(WHITE), mirrored.getEvaluation(BLACK));
+    Assertions.assertEquals(-board.getEvaluation(WHITE), board.getEvaluation(BLACK));
+  }
+
+
+  @Test
+  void incrementalUpdateTest() throws InvalidMoveException {
+    ChessGame game = new ChessGame();
+    for (String move : new String[] {"e2e4", "d7d5", "e4d5", "d8d5", "b1c3", "d5a5", "e1e2", "a5a2", "a1a2"}) {
+      game.makeMove(new ChessMove(move));
+      ChessBoard board = game.getBoard();
+      ChessBoard rebuilt = ChessBoard.fromFen(game.toFen());
+      Assertions.assertEquals(rebuilt.getEvaluation(WHITE), board.getEvaluation(WHITE), move);
+      Assertions.assertEquals(rebuilt.getMaterial(BLACK), board.getMaterial(BLACK), move);
+    }
+    Assertions.assertEquals(900 - 100, game.getBoard().getMaterial(WHITE) - game.getBoard().getMaterial(BLACK));
+  }
+
+
+  @Test
+  void kingCentralizesInEndgameTest() {
+    ChessBoard board = new ChessBoard();
+    board.addPiece(new ChessPosition(1, 5), ChessPiece.of(WHITE, ChessPiece.PieceType.KING));
+    board.addPiece(new ChessPosition(8, 5), ChessPiece.of(BLACK, ChessPiece.PieceType.KING));
+    int cornered = board.getEvaluation(WHITE);
+
+    board.addPiece(new ChessPosition(1, 5), null);
+    board.addPiece(new ChessPosition(4, 5), ChessPiece.of(WHITE, ChessPiece.PieceType.KING));
+    Assertions.assertTrue(board.getEvaluation(WHITE) > cornered);
+  }
+}
@@ -0,0 +1,91 @@
+package chessTests;
+
+import chess.*;
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import request.webSocketMessages.serverMessages.LoadGame;
+
+import static passoffTests.TestFactory.loadBoard;
+
+class FenTest {
+
+  private static final String START_FEN = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+  private static final String PROMOTIONS_FEN = "n1n5/PPPk4/8/8/8/8/4Kppp/5N1N b - - 0 1";
+
+  private static final String PROMOTIONS = """
+          |n| |n| | | | | |
+          |P|P|P|k| | | | |
+          | | | | | | | | |
+          | | | | | | | | |
+          | | | | | | | | |
+          | | | | | | | | |
+          | | | | |K|p|p|p|
+          | | | | | |N| |N|
+          """;
+
+  private final Gson gson = new Gson();
+
+
+  @Test
+  void formatTest() {
+    Assertions.assertEquals(START_FEN, new ChessGame().toFen());
+    Assertions.assertEquals(PROMOTIONS_FEN, new ChessGame(loadBoard(PROMOTIONS), ChessGame.TeamColor.BLACK).toFen());
+  }
+
+
+  @Test
+  void parseTest() {
+    Assertions.assertEquals(new ChessGame(), ChessGame.fromFen("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1"));
+    Assertions.assertEquals(new ChessGame(loadBoard(PROMOTIONS), ChessGame.TeamColor.BLACK), ChessGame.fromFen("n1n5/PPPk4/8/8/8/8/4Kppp/5N1N b"));
+    Assertions.assertEquals(loadBoard(PROMOTIONS), ChessBoard.fromFen(PROMOTIONS_FEN));
+  }
+
+
+  @Test
+  void badFenTest() {
+    Assertions.assertThrows(IllegalArgumentException.class, () -> ChessGame.fromFen("8/8/8/8/8/8/8/8"));
+    Assertions.assertThrows(IllegalArgumentException.class, () -> ChessGame.fromFen("8/8/8/8/8/8/8/8 x"));
+    Assertions.assertThrows(IllegalArgumentException.class, () -> ChessGame.fromFen("8/8/8/8/8/8/8/8 w KX"));
+    Assertions.assertThrows(IllegalArgumentException.class, () -> ChessBoard.fromFen("8/8/8/8/8/8/8"));
+    Assertions.assertThrows(IllegalArgumentException.class, () -> ChessBoard.fromFen("9/8/8/8/8/8/8/8"));
+    Assertions.assertThrows(IllegalArgumentException.class, () -> ChessBoard.fromFen("7x/8/8/8/8/8/8/8"));
+  }
+
+
+  @Test
+  void gsonStoresCompactFormTest() throws InvalidMoveException {
+    ChessGame game = new ChessGame();
+    game.makeMove(new ChessMove("e2e4"));
+    game.validMoves(new ChessPosition(7, 5));
+
+    String json = gson.toJson(game);
+    Assertions.assertTrue(json.startsWith("{\"fen\":\"rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1\""), json);
+    Assertions.assertFalse(json.contains("board") || json.contains("validMoves"), json);
+    Assertions.assertEquals(game, gson.fromJson(json, ChessGame.class));
+
+    LoadGame loadGame = gson.fromJson(gson.toJson(new LoadGame(game)), LoadGame.class);
+    Assertions.assertEquals(game, loadGame.getGame());
+  }
+
+
+  @Test
+  void gsonReadsLegacyFormTest() {
+    String emptyRow = "[null,null,null,null,null,null,null,null]";
+    String legacyJson = "{\"board\":{\"board\":["
+            + "[null,null,null,null,{\"pieceColor\":\"WHITE\",\"pieceType\":\"KING\"},null,null,null],"
+            + String.join(",", emptyRow, emptyRow, emptyRow, emptyRow, emptyRow, emptyRow) + ","
+            + "[null,null,null,null,{\"pieceColor\":\"BLACK\",\"pieceType\":\"KING\"},null,null,null]]},"
+            + "\"teamTurn\":\"BLACK\",\"validMoves\":[]}";
+
+    ChessGame game = gson.fromJson(legacyJson, ChessGame.class);
+    Assertions.assertEquals("4k3/8/8/8/8/8/8/4K3 b - - 0 1", game.toFen());
+  }
+
+
+  @Test
+  void gsonBadFenTest() {
+    Assertions.assertThrows(JsonParseException.class, () -> gson.fromJson("{\"fen\":\"8/8 w\"}", ChessGame.class));
+  }
+}
@@ -0,0 +1,61 @@
+package chessTests;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessNotation;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import static chess.ChessGame.TeamColor.BLACK;
+import static chess.ChessGame.TeamColor.WHITE;
+
+class GameEndTest {
+
+  @Test
+  void foolsMateTest() {
+    ChessGame game = ChessGame.fromFen("rnb1kbnr/pppp1ppp/8/4p3/6Pq/5P2/PPPPP2P/RNBQKBNR w KQkq - 1 3");
+    Assertions.assertTrue(game.isInCheckmate(WHITE));
+    Assertions.assertFalse(game.isInStalemate(WHITE));
+    Assertions.assertFalse(game.isInCheckmate(BLACK));
+  }
+
+
+  @Test
+  void blockEscapesMateTest() {
+    // The king has no square, but the bishop can block on f8
+    ChessGame game = ChessGame.fromFen("R5k1/5ppp/8/8/1b6/8/8/6K1 b - - 0 1");
+    Assertions.assertTrue(game.isInCheck(BLACK));
+    Assertions.assertFalse(game.isInCheckmate(BLACK));
+  }
+
+
+  @Test
+  void captureEscapesMateTest() {
+    // The king has no square, but the rook on b8 can take the checker
+    ChessGame game = ChessGame.fromFen("1R6/8/8/k7/8/8/5PPP/1r4K1 w - - 0 1");
+    Assertions.assertFalse(game.isInCheckmate(WHITE));
+    game = ChessGame.fromFen("8/8/8/k7/8/8/5PPP/1r4K1 w - - 0 1");
+    Assertions.assertTrue(game.isInCheckmate(WHITE));
+  }
+
+
+  @Test
+  void stalemateTest() {
+    ChessGame game = ChessGame.fromFen("7k/5Q2/6K1/8/8/8/8/8 b - - 0 1");
+    Assertions.assertTrue(game.isInStalemate(BLACK));
+    Assertions.assertFalse(game.isInCheckmate(BLACK));
+
+    // Same king position, but a free pawn keeps the game going
+    game = ChessGame.fromFen("7k/5Q2/6K1/8/8/p7/8/8 b - - 0 1");
+    Assertions.assertFalse(game.isInStalemate(BLACK));
+  }
+
+
+  @Test
+  void checkmateSuffixTest() {
+    ChessGame game = ChessGame.fromFen("6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1");
+    Assertions.assertEquals("Ra8#", ChessNotation.toSan(game.getBoard(), new ChessMove("a1a8")));
+    game = ChessGame.fromFen("6k1/5ppp/8/8/1b6/8/8/R5K1 w - - 0 1");
+    Assertions.assertEquals("Ra8+", ChessNotation.toSan(game.getBoard(), new ChessMove("a1a8")));
+  }
+}
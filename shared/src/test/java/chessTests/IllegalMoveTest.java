@@ -0,0 +1,93 @@
+package chessTests;
+
+import chess.*;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+/**
+ * makeMove must reject every illegal move and leave the game untouched. BatchMoveValidator
+ * shares the same single-move check, so it must agree.
+ */
+class IllegalMoveTest {
+
+  private static final String START_FEN = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+
+  @Test
+  void pinnedPieceTest() {
+    // The e4 knight is pinned to the e1 king by the e8 rook
+    assertRejected("4r1k1/8/8/8/4N3/8/8/4K3 w - - 0 1", "e4f6");
+    assertRejected("4r1k1/8/8/8/4N3/8/8/4K3 w - - 0 1", "e4c3");
+
+    // A pinned rook may still move along the pin
+    assertAccepted("4r1k1/8/8/8/4R3/8/8/4K3 w - - 0 1", "e4e8");
+    assertRejected("4r1k1/8/8/8/4R3/8/8/4K3 w - - 0 1", "e4a4");
+  }
+
+
+  @Test
+  void leavesKingInCheckTest() {
+    // In check from the h4 bishop: only blocking, capturing or moving the king will do
+    String fen = "4k3/8/8/8/7b/8/8/R3K3 w - - 0 1";
+    assertRejected(fen, "a1a8");
+    assertRejected(fen, "e1f2");
+    assertAccepted(fen, "e1d1");
+
+    // The king may not step onto an attacked square, nor capture a defended piece
+    assertRejected("3rk3/8/8/8/8/8/3r4/4K3 w - - 0 1", "e1d2");
+    assertRejected("4k3/8/8/8/8/8/4r3/3rK3 w - - 0 1", "e1f1");
+    assertAccepted("4k3/8/8/8/8/8/3r4/4K3 w - - 0 1", "e1d2");
+  }
+
+
+  @Test
+  void wrongSideToMoveTest() {
+    assertRejected(START_FEN, "e7e5");
+    assertRejected("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1", "d2d4");
+  }
+
+
+  @Test
+  void emptySquareTest() {
+    assertRejected(START_FEN, "e4e5");
+    assertRejected(START_FEN, "a3a4");
+  }
+
+
+  @Test
+  void nullMoveTest() {
+    ChessGame game = ChessGame.fromFen(START_FEN);
+    Assertions.assertThrows(InvalidMoveException.class, () -> game.makeMove(null));
+    Assertions.assertEquals(START_FEN, game.toFen());
+  }
+
+
+  @Test
+  void impossibleMoveTest() {
+    assertRejected(START_FEN, "e2e5");        // too far
+    assertRejected(START_FEN, "a1a3");        // blocked
+    assertRejected(START_FEN, "e1e2");        // onto a friendly piece
+    assertRejected(START_FEN, "e2e4=Q");      // promotion short of the last row
+    assertRejected("4k3/P7/8/8/8/8/8/4K3 w - - 0 1", "a7a8");  // promotion piece missing
+  }
+
+
+  private static void assertRejected(String fen, String move) {
+    ChessGame game = ChessGame.fromFen(fen);
+    Assertions.assertThrows(InvalidMoveException.class, () -> game.makeMove(new ChessMove(move)), move);
+    Assertions.assertEquals(fen, game.toFen(), "rejected move " + move + " changed the game");
+    Assertions.assertFalse(validateOne(fen, move), move);
+  }
+
+  private static void assertAccepted(String fen, String move) {
+    ChessGame game = ChessGame.fromFen(fen);
+    Assertions.assertDoesNotThrow(() -> game.makeMove(new ChessMove(move)), move);
+    Assertions.assertTrue(validateOne(fen, move), move);
+  }
+
+  private static boolean validateOne(String fen, String move) {
+    return BatchMoveValidator.validate(List.of(ChessGame.fromFen(fen)), List.of(new ChessMove(move)))[0];
+  }
+}
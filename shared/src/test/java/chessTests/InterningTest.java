@@ -0,0 +1,73 @@
+package chessTests;
+
+import chess.*;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static chess.ChessPiece.PieceType.*;
+
+class InterningTest {
+
+  @Test
+  void piecesTest() {
+    for (ChessGame.TeamColor color : ChessGame.TeamColor.values()) {
+      for (ChessPiece.PieceType type : ChessPiece.PieceType.values()) {
+        ChessPiece shared = ChessPiece.of(color, type);
+        Assertions.assertSame(shared, ChessPiece.of(color, type));
+        Assertions.assertEquals(new ChessPiece(color, type), shared);
+        Assertions.assertEquals(new ChessPiece(color, type).hashCode(), shared.hashCode());
+      }
+    }
+  }
+
+
+  @Test
+  void positionsTest() {
+    for (int row = 1; row <= 8; row++) {
+      for (int col = 1; col <= 8; col++) {
+        ChessPosition shared = ChessPosition.of(row, col);
+        Assertions.assertSame(shared, ChessPosition.of(row, col));
+        Assertions.assertEquals(new ChessPosition(row, col), shared);
+        Assertions.assertEquals(new ChessPosition(row, col).hashCode(), shared.hashCode());
+      }
+    }
+
+    // Off-board positions aren't shared, but still compare by value
+    Assertions.assertEquals(new ChessPosition(0, 9), ChessPosition.of(0, 9));
+    Assertions.assertFalse(ChessPosition.of(0, 9).positionIsWithinBounds());
+  }
+
+
+  @Test
+  void movesTest() {
+    ChessPosition e2 = ChessPosition.of(2, 5);
+    ChessPosition e4 = ChessPosition.of(4, 5);
+    Assertions.assertSame(ChessMove.of(e2, e4), ChessMove.of(e2, e4));
+    Assertions.assertSame(ChessMove.of(e2, e4), ChessMove.of(e2, 2, 0, null));
+    Assertions.assertEquals(new ChessMove(e2, e4, null), ChessMove.of(e2, e4));
+    Assertions.assertEquals(new ChessMove("e2e4"), ChessMove.of(e2, e4));
+
+    ChessPosition b7 = ChessPosition.of(7, 2);
+    ChessPosition a8 = ChessPosition.of(8, 1);
+    for (ChessPiece.PieceType promotion : List.of(QUEEN, ROOK, BISHOP, KNIGHT)) {
+      ChessMove shared = ChessMove.of(b7, a8, promotion);
+      Assertions.assertSame(shared, ChessMove.of(b7, a8, promotion));
+      Assertions.assertEquals(new ChessMove(b7, a8, promotion), shared);
+      Assertions.assertSame(shared, ChessMove.decode(shared.encode()));
+    }
+
+    // Moves without a shared instance are still built, and equal by value
+    ChessMove odd = ChessMove.of(e2, e4, QUEEN);
+    Assertions.assertEquals(new ChessMove(e2, e4, QUEEN), odd);
+    Assertions.assertNotEquals(ChessMove.of(e2, e4), odd);
+  }
+
+
+  @Test
+  void badCodesTest() {
+    Assertions.assertThrows(IllegalArgumentException.class, () -> ChessMove.decode((short) (7 << 12)));
+    Assertions.assertThrows(IllegalArgumentException.class, () -> ChessMove.decode((short) -1));
+  }
+}
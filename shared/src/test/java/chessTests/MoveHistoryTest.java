@@ -0,0 +1,101 @@
+package chessTests;
+
+import chess.*;
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+class MoveHistoryTest {
+
+  private final Gson gson = new Gson();
+
+
+  @Test
+  void recordsMovesTest() throws InvalidMoveException {
+    ChessGame game = playMoves(new ChessGame(), "e2e4", "d7d5", "e4d5", "d8d5");
+
+    Assertions.assertEquals(List.of("e2e4", "d7d5", "e4d5", "d8d5"), game.getUciHistory());
+    Assertions.assertEquals(new ChessMove("e4d5"), game.getMoveHistory().get(2));
+    Assertions.assertNull(game.getCapturedPiece(0));
+    Assertions.assertEquals(new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN), game.getCapturedPiece(2));
+    Assertions.assertEquals(new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN), game.getCapturedPiece(3));
+    Assertions.assertEquals(new ChessGame().toFen(), game.getStartFen());
+  }
+
+
+  @Test
+  void invalidMoveNotRecordedTest() {
+    ChessGame game = new ChessGame();
+    Assertions.assertThrows(InvalidMoveException.class, () -> game.makeMove(new ChessMove("e2e5")));
+    Assertions.assertTrue(game.getMoveHistory().isEmpty());
+  }
+
+
+  @Test
+  void sanTest() throws InvalidMoveException {
+    ChessGame italian = playMoves(new ChessGame(), "e2e4", "e7e5", "g1f3", "b8c6", "f1c4", "g8f6", "d2d3", "f8c5");
+    Assertions.assertEquals(List.of("e4", "e5", "Nf3", "Nc6", "Bc4", "Nf6", "d3", "Bc5"), italian.getSanHistory());
+
+    ChessGame foolsMate = playMoves(new ChessGame(), "f2f3", "e7e5", "g2g4", "d8h4");
+    Assertions.assertEquals(List.of("f3", "e5", "g4", "Qh4#"), foolsMate.getSanHistory());
+  }
+
+
+  @Test
+  void sanDisambiguationTest() throws InvalidMoveException {
+    ChessGame knights = playMoves(ChessGame.fromFen("4k3/8/8/8/8/5N2/8/1N2K3 w"), "b1d2");
+    Assertions.assertEquals(List.of("Nbd2"), knights.getSanHistory());
+
+    ChessGame rooks = playMoves(ChessGame.fromFen("4k3/8/8/R7/8/8/8/R3K3 w"), "a1a3");
+    Assertions.assertEquals(List.of("R1a3"), rooks.getSanHistory());
+  }
+
+
+  @Test
+  void sanPromotionTest() throws InvalidMoveException {
+    ChessGame game = playMoves(ChessGame.fromFen("4k3/P7/8/8/8/8/8/4K3 w"), "a7a8=Q");
+    Assertions.assertEquals(List.of("a8=Q+"), game.getSanHistory());
+    Assertions.assertEquals(List.of("a7a8q"), game.getUciHistory());
+  }
+
+
+  @Test
+  void historyResetsWithBoardTest() throws InvalidMoveException {
+    ChessGame game = playMoves(new ChessGame(), "e2e4");
+    game.setBoard(ChessBoard.fromFen("4k3/8/8/8/8/8/8/4K3"));
+
+    Assertions.assertTrue(game.getMoveHistory().isEmpty());
+    Assertions.assertEquals("4k3/8/8/8/8/8/8/4K3 b - - 0 1", game.getStartFen());
+  }
+
+
+  @Test
+  void gsonKeepsHistoryTest() throws InvalidMoveException {
+    ChessGame game = playMoves(ChessGame.fromFen("4k3/P7/8/8/8/8/8/4K3 w"), "a7a8=Q", "e8d7", "a8b7");
+
+    ChessGame readGame = gson.fromJson(gson.toJson(game), ChessGame.class);
+    Assertions.assertEquals(game, readGame);
+    Assertions.assertEquals(game.getStartFen(), readGame.getStartFen());
+    Assertions.assertEquals(game.getSanHistory(), readGame.getSanHistory());
+  }
+
+
+  @Test
+  void gsonRejectsMismatchedHistoryTest() throws InvalidMoveException {
+    String json = gson.toJson(playMoves(new ChessGame(), "e2e4"));
+    String tamperedJson = json.replace("4P3/8/PPPP1PPP", "8/4P3/PPPP1PPP");
+
+    Assertions.assertThrows(JsonParseException.class, () -> gson.fromJson(tamperedJson, ChessGame.class));
+  }
+
+
+  private static ChessGame playMoves(ChessGame game, String... moves) throws InvalidMoveException {
+    for (String move : moves) {
+      game.makeMove(new ChessMove(move));
+    }
+    return game;
+  }
+}
@@ -0,0 +1,81 @@
+package chessTests;
+
+import chess.ChessMove;
+import chess.ChessPiece;
+import chess.ChessPosition;
+import chess.MoveList;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+
+import static passoffTests.TestFactory.loadBoard;
+
+class MoveListTest {
+
+  @Test
+  void generatedSetViewTest() {
+    var board = loadBoard("""
+            | | | | | | | | |
+            | | |P| | | | | |
+            | | | | | | | | |
+            | | | | | | | | |
+            | | | | | | | | |
+            | | | | | | | | |
+            | | | | | | | | |
+            | | | | | | | | |
+            """);
+    ChessPosition start = new ChessPosition(7, 3);
+    Collection<ChessMove> moves = board.getPiece(start).pieceMoves(board, start);
+
+    Set<ChessMove> expected = new HashSet<>();
+    for (ChessPiece.PieceType type : new ChessPiece.PieceType[] {ChessPiece.PieceType.QUEEN,
+            ChessPiece.PieceType.ROOK, ChessPiece.PieceType.BISHOP, ChessPiece.PieceType.KNIGHT}) {
+      expected.add(new ChessMove(start, new ChessPosition(8, 3), type));
+    }
+    Assertions.assertEquals(expected, moves);
+    Assertions.assertEquals(moves, expected);
+    Assertions.assertEquals(expected.hashCode(), moves.hashCode());
+    Assertions.assertTrue(moves.contains(new ChessMove("c7c8=Q")));
+    Assertions.assertFalse(moves.contains(new ChessMove("c7c8")));
+  }
+
+
+  @Test
+  void iteratorRemoveTest() {
+    var board = loadBoard("""
+            | | | | | | | | |
+            | | | | | | | | |
+            | | | | | | | | |
+            | | | | | | | | |
+            | | | | | | | | |
+            | | | | | | | | |
+            | | | | | | | | |
+            |R| | | | | | | |
+            """);
+    ChessPosition start = new ChessPosition(1, 1);
+    Collection<ChessMove> moves = board.getPiece(start).pieceMoves(board, start);
+    Assertions.assertEquals(14, moves.size());
+
+    moves.removeIf(move -> move.getEndPosition().getRow() == 1);
+    Assertions.assertEquals(7, moves.size());
+    for (ChessMove move : moves) {
+      Assertions.assertEquals(1, move.getEndPosition().getColumn());
+    }
+
+    Iterator<ChessMove> iterator = moves.iterator();
+    Assertions.assertThrows(IllegalStateException.class, iterator::remove);
+  }
+
+
+  @Test
+  void emptyListTest() {
+    MoveList moves = new MoveList();
+    Assertions.assertEquals(0, moves.size());
+    Assertions.assertTrue(moves.asSet().isEmpty());
+    Assertions.assertFalse(moves.contains(new ChessMove("a2a4")));
+  }
+}
@@ -0,0 +1,101 @@
+package chessTests;
+
+import chess.*;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+class OpeningBookTest {
+
+  private static final String GAMES = """
+          1. e4 e5 2. Nf3 Nc6 3. Bb5 *
+          1. e4 e5 2. Nf3 Nc6 3. Bc4 *
+          1. e4 c5 2. Nf3 d6 *
+          1. d4 d5 2. c4 *
+          1. e4 e5 2. Nf3 Nf6 *
+          """;
+
+  @TempDir
+  Path directory;
+
+
+  @Test
+  void buildAndLookUpTest() throws IOException, InvalidMoveException {
+    Path path = writeBook(1);
+    try (OpeningBook book = OpeningBook.open(path)) {
+      ChessGame game = new ChessGame();
+      Assertions.assertEquals(new ChessMove("e2e4"), book.getBestMove(game));
+      long first = book.findFirst(game.getZobristKey());
+      Assertions.assertEquals(4, book.weightAt(first));
+      Assertions.assertEquals(1, book.weightAt(first + 1));
+      Assertions.assertEquals(new ChessMove("d2d4"), book.moveAt(first + 1));
+
+      game.makeMove(new ChessMove("e2e4"));
+      game.makeMove(new ChessMove("e7e5"));
+      game.makeMove(new ChessMove("g1f3"));
+      Assertions.assertEquals(new ChessMove("b8c6"), book.getBestMove(game));
+
+      game.makeMove(new ChessMove("b8c6"));
+      ChessMove weighted = book.getWeightedMove(game, new Random(1));
+      Assertions.assertTrue(weighted.equals(new ChessMove("f1b5")) || weighted.equals(new ChessMove("f1c4")));
+
+      game.makeMove(new ChessMove("f1b5"));
+      Assertions.assertNull(book.getBestMove(game));
+      Assertions.assertEquals(-1, book.findFirst(game.getZobristKey()));
+    }
+  }
+
+
+  @Test
+  void minCountTest() throws IOException {
+    Path path = writeBook(2);
+    try (OpeningBook book = OpeningBook.open(path)) {
+      // Only moves played twice or more: e4 (4), e5 (3), Nf3 (3), Nc6 (2)
+      Assertions.assertEquals(4, book.size());
+      Assertions.assertEquals(new ChessMove("e2e4"), book.getBestMove(new ChessGame()));
+    }
+  }
+
+
+  @Test
+  void engineUsesBookTest() throws IOException {
+    try (OpeningBook book = OpeningBook.open(writeBook(1))) {
+      ChessEngine engine = new ChessEngine();
+      engine.setOpeningBook(book);
+      Assertions.assertEquals(new ChessMove("e2e4"), engine.findBestMove(new ChessGame(), 1_000));
+      Assertions.assertEquals(0, engine.getNodeCount());
+    }
+  }
+
+
+  @Test
+  void badFileTest() throws IOException {
+    Path path = directory.resolve("bad.book");
+    Files.write(path, new byte[] {1, 2, 3});
+    Assertions.assertThrows(IOException.class, () -> OpeningBook.open(path));
+
+    Path truncated = directory.resolve("truncated.book");
+    byte[] bytes = Files.readAllBytes(writeBook(1));
+    Files.write(truncated, java.util.Arrays.copyOf(bytes, bytes.length - 1));
+    Assertions.assertThrows(IOException.class, () -> OpeningBook.open(truncated));
+  }
+
+
+  private Path writeBook(int minCount) throws IOException {
+    OpeningBookBuilder builder = new OpeningBookBuilder(OpeningBookBuilder.DEFAULT_MAX_PLY);
+    PgnReader reader = new PgnReader(new StringReader(GAMES));
+    PgnGame game;
+    while ((game = reader.next()) != null) {
+      builder.addGame(game.replay());
+    }
+    Path path = directory.resolve("test-" + minCount + ".book");
+    builder.write(path, minCount);
+    return path;
+  }
+}
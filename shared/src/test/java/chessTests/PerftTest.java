@@ -0,0 +1,132 @@
+package chessTests;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.Perft;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import static passoffTests.TestFactory.loadBoard;
+
+/**
+ * Perft node counts for standard test positions (https://www.chessprogramming.org/Perft_Results).
+ */
+class PerftTest {
+
+  // 8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - -
+  private static final String POSITION_3 = """
+          | | | | | | | | |
+          | | |p| | | | | |
+          | | | |p| | | | |
+          |K|P| | | | | |r|
+          | |R| | | |p| |k|
+          | | | | | | | | |
+          | | | | |P| |P| |
+          | | | | | | | | |
+          """;
+
+  // n1n5/PPPk4/8/8/8/8/4Kppp/5N1N b - -
+  private static final String PROMOTIONS = """
+          |n| |n| | | | | |
+          |P|P|P|k| | | | |
+          | | | | | | | | |
+          | | | | | | | | |
+          | | | | | | | | |
+          | | | | | | | | |
+          | | | | |K|p|p|p|
+          | | | | | |N| |N|
+          """;
+
+
+  @Test
+  void startingPositionTest() {
+    ChessGame game = new ChessGame();
+    Assertions.assertEquals(20, Perft.perft(game, 1));
+    Assertions.assertEquals(400, Perft.perft(game, 2));
+    Assertions.assertEquals(8_902, Perft.perft(game, 3));
+    Assertions.assertEquals(197_281, Perft.perft(game, 4));
+  }
+
+
+  @Test
+  void kiwipeteTest() {
+    ChessGame game = ChessGame.fromFen("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1");
+    Assertions.assertEquals(48, Perft.perft(game, 1));
+    Assertions.assertEquals(2_039, Perft.perft(game, 2));
+    Assertions.assertEquals(97_862, Perft.perft(game, 3));
+  }
+
+
+  @Test
+  void position3Test() {
+    ChessGame game = new ChessGame(loadBoard(POSITION_3), ChessGame.TeamColor.WHITE);
+    Assertions.assertEquals(14, Perft.perft(game, 1));
+    Assertions.assertEquals(191, Perft.perft(game, 2));
+    Assertions.assertEquals(2_812, Perft.perft(game, 3));
+    Assertions.assertEquals(43_238, Perft.perft(game, 4));
+  }
+
+
+  @Test
+  void position4Test() {
+    ChessGame game = ChessGame.fromFen("r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1");
+    Assertions.assertEquals(6, Perft.perft(game, 1));
+    Assertions.assertEquals(264, Perft.perft(game, 2));
+    Assertions.assertEquals(9_467, Perft.perft(game, 3));
+  }
+
+
+  @Test
+  void position5Test() {
+    ChessGame game = ChessGame.fromFen("rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8");
+    Assertions.assertEquals(44, Perft.perft(game, 1));
+    Assertions.assertEquals(1_486, Perft.perft(game, 2));
+    Assertions.assertEquals(62_379, Perft.perft(game, 3));
+  }
+
+
+  @Test
+  void promotionsTest() {
+    ChessGame game = new ChessGame(loadBoard(PROMOTIONS), ChessGame.TeamColor.BLACK);
+    Assertions.assertEquals(24, Perft.perft(game, 1));
+    Assertions.assertEquals(496, Perft.perft(game, 2));
+    Assertions.assertEquals(9_483, Perft.perft(game, 3));
+    Assertions.assertEquals(182_838, Perft.perft(game, 4));
+  }
+
+
+  @Test
+  void divideSumsToPerftTest() {
+    ChessGame game = new ChessGame();
+    Map<ChessMove, Long> counts = Perft.divide(game, 3);
+
+    Assertions.assertEquals(20, counts.size());
+    Assertions.assertEquals(8_902, counts.values().stream().mapToLong(Long::longValue).sum());
+    Assertions.assertEquals(new ChessGame(), game, "Perft must not modify the game it is given");
+  }
+
+
+  @Test
+  void parallelPerftTest() {
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      ChessGame kiwipete = ChessGame.fromFen("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1");
+      Assertions.assertEquals(4_085_603, Perft.perft(kiwipete, 4, pool));
+      Assertions.assertEquals(197_281, Perft.perft(new ChessGame(), 4, pool));
+      Assertions.assertEquals(20, Perft.perft(new ChessGame(), 1, pool));
+    }
+    finally {
+      pool.shutdown();
+    }
+  }
+
+
+  @Test
+  void depthZeroTest() {
+    Assertions.assertEquals(1, Perft.perft(new ChessGame(), 0));
+    Assertions.assertThrows(IllegalArgumentException.class, () -> Perft.divide(new ChessGame(), 0));
+  }
+}
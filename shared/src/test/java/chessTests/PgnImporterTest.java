@@ -0,0 +1,84 @@
+package chessTests;
+
+import chess.*;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+
+class PgnImporterTest {
+
+  @Test
+  void importMatchesSequentialReplayTest() throws IOException, InvalidMoveException {
+    // Random playouts, tagged with their final position, plus one game with an illegal move
+    Random random = new Random(11);
+    StringBuilder pgn = new StringBuilder();
+    for (int i = 0; i < 300; i++) {
+      ChessGame game = randomGame(random, 1 + random.nextInt(80));
+      pgn.append("[Round \"").append(i).append("\"]\n[Final \"").append(game.toFen()).append("\"]\n\n");
+      pgn.append(String.join(" ", game.getSanHistory())).append(" *\n\n");
+    }
+    pgn.append("[Round \"illegal\"]\n\n1. e4 e5 2. Ke3 1-0\n");
+
+    Map<String, String> finalFens = new ConcurrentHashMap<>();
+    PgnImporter.Summary summary = new PgnImporter(4).importGames(toStream(pgn), (pgnGame, game) -> {
+      Assertions.assertEquals(pgnGame.tags().get("Final"), game.toFen());
+      finalFens.put(pgnGame.tags().get("Round"), game.toFen());
+    });
+
+    Assertions.assertEquals(new PgnImporter.Summary(300, 1), summary);
+    Assertions.assertEquals(300, finalFens.size());
+    Assertions.assertFalse(finalFens.containsKey("illegal"));
+  }
+
+
+  @Test
+  void sinkFailureTest() {
+    StringBuilder pgn = new StringBuilder();
+    for (int i = 0; i < 1_000; i++) {
+      pgn.append("1. e4 e5 2. Nf3 Nc6 1/2-1/2\n");
+    }
+    PgnImporter importer = new PgnImporter(3);
+    IllegalStateException e = Assertions.assertThrows(IllegalStateException.class,
+            () -> importer.importGames(toStream(pgn), (pgnGame, game) -> {
+              throw new IllegalStateException("store is full");
+            }));
+    Assertions.assertEquals("store is full", e.getMessage());
+  }
+
+
+  @Test
+  void emptyInputTest() throws IOException {
+    Assertions.assertEquals(new PgnImporter.Summary(0, 0),
+            new PgnImporter(1).importGames(toStream(new StringBuilder()), (pgnGame, game) -> Assertions.fail()));
+    Assertions.assertThrows(IllegalArgumentException.class, () -> new PgnImporter(0));
+  }
+
+
+  private static InputStream toStream(StringBuilder pgn) {
+    return new ByteArrayInputStream(pgn.toString().getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static ChessGame randomGame(Random random, int plies) throws InvalidMoveException {
+    ChessGame game = new ChessGame();
+    for (int ply = 0; ply < plies; ply++) {
+      List<ChessMove> moves = new ArrayList<>();
+      for (ChessPosition position : game.getBoard().iterateForFriendlyPieces(game.getTeamTurn())) {
+        moves.addAll(game.validMoves(position));
+      }
+      if (moves.isEmpty()) {
+        break;
+      }
+      game.makeMove(moves.get(random.nextInt(moves.size())));
+    }
+    return game;
+  }
+}
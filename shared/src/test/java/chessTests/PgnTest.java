@@ -0,0 +1,104 @@
+package chessTests;
+
+import chess.*;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+class PgnTest {
+
+  private static final String TWO_GAMES = """
+          [Event "Casual"]
+          [White "Anderssen, Adolf"]
+          [Black "Kieseritzky, Lionel"]
+          [Result "1-0"]
+
+          1. e4 e5 2. f4 exf4 3. Bc4 Qh4+ 4. Kf1 b5?! {The gambit of the gambit} 5. Bxb5 Nf6
+          6. Nf3 Qh6 7. d3 Nh5 8. Nh4 Qg5 (8... g6 9. Nf5 $1 (9. Rg1) ; a line comment
+          ) 9. Nf5 c6 10. g4 Nf6 11. Rg1 cxb5 12. h4 Qg6 13. h5 Qg5 14. Qf3 Ng8 15. Bxf4 Qf6
+          16. Nc3 Bc5 17. Nd5 Qxb2 18. Bd6 Bxg1 19. e5 Qxa1+ 20. Ke2 Na6 21. Nxg7+ Kd8
+          22. Qf6+ Nxf6 23. Be7# 1-0
+
+          [Event "Endgame"]
+          [SetUp "1"]
+          [FEN "7k/P7/8/8/8/8/8/4K2R w K - 0 1"]
+          % an escaped line that is not PGN
+          1. a8=Q+ Kg7 2. O-O *
+          """;
+
+
+  @Test
+  void readsGamesTest() throws IOException {
+    PgnReader reader = new PgnReader(new StringReader(TWO_GAMES));
+
+    PgnGame immortal = reader.next();
+    Assertions.assertEquals("Anderssen, Adolf", immortal.tags().get("White"));
+    Assertions.assertEquals("1-0", immortal.result());
+    Assertions.assertEquals(45, immortal.moves().size());
+    Assertions.assertEquals("b5", immortal.moves().get(7));
+    Assertions.assertEquals("Nf5", immortal.moves().get(16));
+
+    ChessGame game = immortal.replay();
+    Assertions.assertTrue(game.isInCheckmate(ChessGame.TeamColor.BLACK));
+    Assertions.assertEquals(immortal.moves().getLast().replace("#", ""), game.getSanHistory().getLast().replace("#", ""));
+
+    PgnGame endgame = reader.next();
+    Assertions.assertEquals("*", endgame.result());
+    Assertions.assertEquals(List.of("a8=Q+", "Kg7", "O-O"), endgame.moves());
+    Assertions.assertEquals("Q7/6k1/8/8/8/8/8/5RK1 b - - 2 2", endgame.replay().toFen());
+
+    Assertions.assertNull(reader.next());
+  }
+
+
+  @Test
+  void gameWithoutResultTest() throws IOException {
+    PgnReader reader = new PgnReader(new StringReader("1. d4 d5\n[Event \"Next\"]\n1. c4 1/2-1/2"));
+    Assertions.assertEquals(List.of("d4", "d5"), reader.next().moves());
+    PgnGame next = reader.next();
+    Assertions.assertEquals("Next", next.tags().get("Event"));
+    Assertions.assertEquals(List.of("c4"), next.moves());
+    Assertions.assertNull(reader.next());
+  }
+
+
+  @Test
+  void illegalMoveTest() throws IOException {
+    PgnGame game = new PgnReader(new StringReader("1. e4 e5 2. Ke3 *")).next();
+    Assertions.assertThrows(IllegalArgumentException.class, game::replay);
+
+    // Both knights can reach d2
+    ChessGame knights = ChessGame.fromFen("4k3/8/8/8/8/5N2/8/1N2K3 w - - 0 1");
+    Assertions.assertThrows(IllegalArgumentException.class,
+            () -> ChessNotation.fromSan(knights.getBoard(), ChessGame.TeamColor.WHITE, "Nd2"));
+    Assertions.assertEquals(new ChessMove("b1d2"), ChessNotation.fromSan(knights.getBoard(), ChessGame.TeamColor.WHITE, "Nbd2"));
+  }
+
+
+  @Test
+  void sanRoundTripTest() throws InvalidMoveException {
+    Random random = new Random(3);
+    for (int gameIndex = 0; gameIndex < 20; gameIndex++) {
+      ChessGame game = new ChessGame();
+      for (int ply = 0; ply < 100; ply++) {
+        List<ChessMove> moves = new ArrayList<>();
+        for (ChessPosition position : game.getBoard().iterateForFriendlyPieces(game.getTeamTurn())) {
+          moves.addAll(game.validMoves(position));
+        }
+        if (moves.isEmpty()) {
+          break;
+        }
+        for (ChessMove move : moves) {
+          String san = ChessNotation.toSan(game.getBoard(), move);
+          Assertions.assertEquals(move, ChessNotation.fromSan(game.getBoard(), game.getTeamTurn(), san), san);
+        }
+        game.makeMove(moves.get(random.nextInt(moves.size())));
+      }
+    }
+  }
+}
@@ -0,0 +1,111 @@
+package chessTests;
+
+import chess.*;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static chess.ChessGame.TeamColor.BLACK;
+import static chess.ChessGame.TeamColor.WHITE;
+
+/**
+ * The incrementally kept piece lists and king squares must always match a scan of the board.
+ */
+class PieceListTest {
+
+  @Test
+  void specialMovesTest() throws InvalidMoveException {
+    ChessGame game = ChessGame.fromFen("r3k3/7P/8/8/4p3/8/3P4/R3K2R w KQq - 0 1");
+    assertMatchesScan(game.getBoard());
+
+    game.makeMove(new ChessMove("d2d4"));     // double push
+    assertMatchesScan(game.getBoard());
+    game.makeMove(new ChessMove("e4d3"));     // en passant removes the d4 pawn
+    assertMatchesScan(game.getBoard());
+    game.makeMove(new ChessMove("e1g1"));     // castling moves the rook too
+    assertMatchesScan(game.getBoard());
+    Assertions.assertEquals(new ChessPosition("g1"), game.getBoard().getKingPosition(WHITE));
+    game.makeMove(new ChessMove("e8c8"));
+    assertMatchesScan(game.getBoard());
+    Assertions.assertEquals(new ChessPosition("c8"), game.getBoard().getKingPosition(BLACK));
+    game.makeMove(new ChessMove("h7h8=Q"));   // promotion
+    assertMatchesScan(game.getBoard());
+    game.makeMove(new ChessMove("d8h8"));     // rook captures the new queen
+    assertMatchesScan(game.getBoard());
+    Assertions.assertEquals("2k4r/8/8/8/8/3p4/8/R4RK1 w - - 0 4", game.toFen());
+  }
+
+
+  @Test
+  void addPieceTest() {
+    ChessBoard board = new ChessBoard();
+    board.resetBoard();
+    assertMatchesScan(board);
+
+    // Replace a piece by one of the other color, empty a square, fill an empty one
+    board.addPiece(new ChessPosition("b1"), ChessPiece.of(BLACK, ChessPiece.PieceType.QUEEN));
+    board.addPiece(new ChessPosition("e7"), null);
+    board.addPiece(new ChessPosition("e4"), ChessPiece.of(WHITE, ChessPiece.PieceType.PAWN));
+    assertMatchesScan(board);
+
+    // Move a king by hand, then take it off the board
+    board.addPiece(new ChessPosition("e1"), null);
+    board.addPiece(new ChessPosition("d3"), ChessPiece.of(WHITE, ChessPiece.PieceType.KING));
+    assertMatchesScan(board);
+    board.addPiece(new ChessPosition("d3"), ChessPiece.of(BLACK, ChessPiece.PieceType.ROOK));
+    assertMatchesScan(board);
+    Assertions.assertThrows(IllegalStateException.class, () -> board.getKingPosition(WHITE));
+  }
+
+
+  @Test
+  void randomGamesTest() throws InvalidMoveException {
+    Random random = new Random(9);
+    for (int gameIndex = 0; gameIndex < 20; gameIndex++) {
+      ChessGame game = new ChessGame();
+      for (int ply = 0; ply < 150; ply++) {
+        List<ChessMove> moves = new ArrayList<>();
+        for (ChessPosition position : game.getBoard().iterateForFriendlyPieces(game.getTeamTurn())) {
+          moves.addAll(game.validMoves(position));
+        }
+        if (moves.isEmpty()) {
+          break;
+        }
+        game.makeMove(moves.get(random.nextInt(moves.size())));
+        assertMatchesScan(game.getBoard());
+      }
+    }
+  }
+
+
+  private static void assertMatchesScan(ChessBoard board) {
+    for (ChessGame.TeamColor color : ChessGame.TeamColor.values()) {
+      Set<ChessPosition> scanned = new HashSet<>();
+      ChessPosition king = null;
+      for (int row = 1; row <= 8; row++) {
+        for (int col = 1; col <= 8; col++) {
+          ChessPosition position = new ChessPosition(row, col);
+          ChessPiece piece = board.getPiece(position);
+          if (piece != null && piece.getTeamColor() == color) {
+            scanned.add(position);
+            if (piece.getPieceType() == ChessPiece.PieceType.KING) {
+              king = position;
+            }
+          }
+        }
+      }
+
+      List<ChessPosition> listed = new ArrayList<>(board.iterateForFriendlyPieces(color));
+      Assertions.assertEquals(scanned.size(), listed.size(), color + " piece list has duplicates or misses");
+      Assertions.assertEquals(scanned, new HashSet<>(listed));
+      if (king != null) {
+        Assertions.assertEquals(king, board.getKingPosition(color));
+      }
+    }
+  }
+}
@@ -0,0 +1,98 @@
+package chessTests;
+
+import chess.*;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static chess.ChessGame.TeamColor.BLACK;
+import static chess.ChessGame.TeamColor.WHITE;
+
+/**
+ * Attack detection, asked through the king: a team is in check exactly when the square of its
+ * king is attacked.
+ */
+class SquareAttackTest {
+
+  @Test
+  void pawnTest() {
+    assertCheck(true, BLACK, "8/8/8/3k4/4P3/8/8/K7 b - - 0 1");     // e4 takes d5
+    assertCheck(false, BLACK, "8/8/8/4k3/4P3/8/8/K7 b - - 0 1");    // pawns don't take forward
+    assertCheck(true, WHITE, "k7/8/8/4p3/3K4/8/8/8 w - - 0 1");     // e5 takes d4
+    assertCheck(false, WHITE, "k7/8/8/8/3K4/4p3/8/8 w - - 0 1");    // nor backward
+
+    // Pawns on the edge files attack inward only, never around to the other side of the board
+    assertCheck(true, BLACK, "8/8/8/1k6/P7/8/8/7K b - - 0 1");
+    assertCheck(false, BLACK, "8/8/8/8/P6k/8/8/K7 b - - 0 1");
+    assertCheck(false, BLACK, "8/8/k7/8/7P/8/8/7K b - - 0 1");
+    assertCheck(true, WHITE, "k7/8/8/7p/6K1/8/8/8 w - - 0 1");
+    assertCheck(false, WHITE, "7k/8/8/p7/8/7K/8/8 w - - 0 1");
+    assertCheck(false, WHITE, "7k/8/8/K6p/8/8/8/8 w - - 0 1");
+  }
+
+
+  @Test
+  void knightTest() {
+    assertCheck(true, WHITE, "k7/8/8/8/8/5n2/8/4K3 w - - 0 1");
+    assertCheck(false, WHITE, "k7/8/8/8/8/8/8/6nK w - - 0 1");
+    assertCheck(true, BLACK, "7N/8/6k1/8/8/8/8/K7 b - - 0 1");
+    assertCheck(false, WHITE, "k7/8/8/8/8/8/7K/n7 w - - 0 1");     // a1 + 15 would wrap to h2
+  }
+
+
+  @Test
+  void kingTest() {
+    assertCheck(true, WHITE, "8/8/8/4k3/4K3/8/8/8 w - - 0 1");
+    assertCheck(true, BLACK, "8/8/8/3k4/4K3/8/8/8 b - - 0 1");
+    assertCheck(false, WHITE, "8/8/8/8/K7/7k/8/8 w - - 0 1");      // a4 - 1 would wrap to h3
+  }
+
+
+  @Test
+  void sliderTest() {
+    assertCheck(true, WHITE, "k3r3/8/8/8/8/8/8/4K3 w - - 0 1");
+    assertCheck(false, WHITE, "k3r3/8/8/8/4P3/8/8/4K3 w - - 0 1");   // blocked by a white piece
+    assertCheck(false, WHITE, "k3r3/8/8/8/4p3/8/8/4K3 w - - 0 1");   // blocked by a black piece
+    assertCheck(false, WHITE, "k7/8/8/8/8/K7/7r/8 w - - 0 1");       // h2 + 1 would wrap to a3
+
+    assertCheck(true, WHITE, "k7/8/8/b7/8/8/8/4K3 w - - 0 1");
+    assertCheck(false, WHITE, "k7/8/8/b7/8/2n5/8/4K3 w - - 0 1");
+    assertCheck(false, WHITE, "k7/8/8/b7/8/2N5/8/4K3 w - - 0 1");
+    assertCheck(true, WHITE, "k7/8/8/8/7q/8/8/4K3 w - - 0 1");
+    assertCheck(true, WHITE, "k7/8/8/8/8/8/8/q3K3 w - - 0 1");
+    assertCheck(false, WHITE, "k7/8/8/8/8/8/8/q1B1K3 w - - 0 1");
+    assertCheck(false, WHITE, "k7/8/8/8/8/8/8/b3K3 w - - 0 1");      // a bishop doesn't move straight
+    assertCheck(false, WHITE, "k7/8/8/8/7r/8/8/4K3 w - - 0 1");      // nor a rook diagonally
+  }
+
+
+  @Test
+  void matchesBitboardTest() throws InvalidMoveException {
+    Random random = new Random(5);
+    for (int gameIndex = 0; gameIndex < 30; gameIndex++) {
+      ChessGame game = new ChessGame();
+      for (int ply = 0; ply < 120; ply++) {
+        ChessBitboard bitboard = ChessBitboard.fromChessBoard(game.getBoard());
+        Assertions.assertEquals(bitboard.isInCheck(WHITE), game.isInCheck(WHITE), game.toFen());
+        Assertions.assertEquals(bitboard.isInCheck(BLACK), game.isInCheck(BLACK), game.toFen());
+
+        List<ChessMove> moves = new ArrayList<>();
+        for (ChessPosition position : game.getBoard().iterateForFriendlyPieces(game.getTeamTurn())) {
+          moves.addAll(game.validMoves(position));
+        }
+        if (moves.isEmpty()) {
+          break;
+        }
+        game.makeMove(moves.get(random.nextInt(moves.size())));
+      }
+    }
+  }
+
+
+  private static void assertCheck(boolean expected, ChessGame.TeamColor color, String fen) {
+    Assertions.assertEquals(expected, ChessGame.fromFen(fen).isInCheck(color), fen);
+  }
+}
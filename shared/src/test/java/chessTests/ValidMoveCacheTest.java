@@ -0,0 +1,74 @@
+package chessTests;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import chess.ValidMoveCache;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+class ValidMoveCacheTest {
+
+  private static final ChessMove E2E4 = new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5));
+
+  ValidMoveCache testCache;
+
+  @BeforeEach
+  void setUp() {
+    testCache = new ValidMoveCache(2);
+  }
+
+
+  @Test
+  void missThenHitTest() {
+    List<ChessMove> firstResult = testCache.get(1L, () -> List.of(E2E4));
+    List<ChessMove> secondResult = testCache.get(1L, () -> {
+      throw new AssertionError("Cached position was regenerated");
+    });
+
+    Assertions.assertEquals(List.of(E2E4), firstResult);
+    Assertions.assertSame(firstResult, secondResult);
+    Assertions.assertEquals(1, testCache.getMissCount());
+    Assertions.assertEquals(1, testCache.getHitCount());
+  }
+
+
+  @Test
+  void leastRecentlyUsedEvictionTest() {
+    testCache.get(1L, List::of);
+    testCache.get(2L, List::of);
+    testCache.get(1L, List::of);    // 2 is now least recently used
+    testCache.get(3L, List::of);
+
+    Assertions.assertEquals(2, testCache.size());
+    Assertions.assertEquals(1, testCache.getEvictionCount());
+
+    testCache.get(1L, List::of);
+    Assertions.assertEquals(2, testCache.getHitCount());
+    testCache.get(2L, List::of);
+    Assertions.assertEquals(4, testCache.getMissCount());
+  }
+
+
+  @Test
+  void badCapacityTest() {
+    Assertions.assertThrows(IllegalArgumentException.class, () -> new ValidMoveCache(0));
+  }
+
+
+  @Test
+  void gameUsesSharedCacheTest() {
+    ValidMoveCache sharedCache = ValidMoveCache.getShared();
+    new ChessGame().populateAllValidMoves();
+    long hitsBefore = sharedCache.getHitCount();
+
+    ChessGame game = new ChessGame();
+    game.populateAllValidMoves();
+    Assertions.assertTrue(game.validMoves(new ChessPosition(2, 5)).contains(E2E4));
+
+    Assertions.assertTrue(sharedCache.getHitCount() >= hitsBefore + 2);
+  }
+}
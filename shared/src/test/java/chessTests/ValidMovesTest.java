@@ -0,0 +1,62 @@
+package chessTests;
+
+import chess.*;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collection;
+import java.util.Set;
+
+class ValidMovesTest {
+
+  @Test
+  void pinTest() throws CloneNotSupportedException {
+    // The knight on d2 is pinned by the bishop on b4
+    ChessGame game = ChessGame.fromFen("4k3/8/8/8/1b6/8/3N4/4K3 w - - 0 1");
+    Assertions.assertTrue(validMovesRestoringBoard(game, "d2").isEmpty());
+    Assertions.assertEquals(8, validMovesRestoringBoard(game, "b4").size());
+  }
+
+
+  @Test
+  void checkTest() throws CloneNotSupportedException {
+    // The rook on e8 checks: the bishop can only block on e3, the rook can't help at all
+    ChessGame game = ChessGame.fromFen("4r1k1/8/8/8/8/8/5B2/R3K3 w - - 0 1");
+    Assertions.assertEquals(Set.of(new ChessMove("f2e3")), Set.copyOf(validMovesRestoringBoard(game, "f2")));
+    Assertions.assertTrue(validMovesRestoringBoard(game, "a1").isEmpty());
+    Assertions.assertEquals(Set.of(new ChessMove("e1d1"), new ChessMove("e1d2"), new ChessMove("e1f1")),
+            Set.copyOf(validMovesRestoringBoard(game, "e1")));
+  }
+
+
+  @Test
+  void promotionAndCaptureTest() throws CloneNotSupportedException {
+    ChessGame game = ChessGame.fromFen("1r2k3/P7/8/3p4/4P3/8/8/4K3 w - - 0 1");
+    Assertions.assertEquals(8, validMovesRestoringBoard(game, "a7").size());
+    Assertions.assertEquals(Set.of(new ChessMove("e4e5"), new ChessMove("e4d5")),
+            Set.copyOf(validMovesRestoringBoard(game, "e4")));
+    Assertions.assertEquals(Set.of(new ChessMove("d5d4"), new ChessMove("d5e4")),
+            Set.copyOf(validMovesRestoringBoard(game, "d5")));
+  }
+
+
+  /**
+   * @return  valid moves of the piece on 'square', after checking that generating them left
+   *          the board exactly as it was
+   */
+  private static Collection<ChessMove> validMovesRestoringBoard(ChessGame game, String square)
+          throws CloneNotSupportedException {
+    ChessBoard before = game.getBoard().clone();
+    String fenBefore = game.toFen();
+    long keyBefore = game.getZobristKey();
+    int whiteEvaluationBefore = game.getBoard().getEvaluation(ChessGame.TeamColor.WHITE);
+
+    Collection<ChessMove> moves = game.validMoves(new ChessPosition(square));
+
+    Assertions.assertEquals(before, game.getBoard());
+    Assertions.assertEquals(fenBefore, game.toFen());
+    Assertions.assertEquals(keyBefore, game.getZobristKey());
+    Assertions.assertEquals(whiteEvaluationBefore, game.getBoard().getEvaluation(ChessGame.TeamColor.WHITE));
+    return moves;
+  }
+}
@@ -0,0 +1,89 @@
+package chessTests;
+
+import chess.*;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The Zobrist key kept up to date move by move must equal the key of the same position set up
+ * from scratch.
+ */
+class ZobristTest {
+
+  @Test
+  void incrementalKeyTest() throws InvalidMoveException {
+    ChessGame game = ChessGame.fromFen("r3k2r/1p3p2/8/8/4p3/8/3P3P/R3K2R w KQkq - 0 1");
+    assertMatchesScratchKey(game);
+
+    String[] moves = {
+            "d2d4",   // double push, capturable en passant
+            "e4d3",   // en passant capture
+            "e1g1",   // castling, white loses both rights
+            "e8g8",   // castling, black loses both rights
+            "a1a8",   // captures a rook, no rights left to lose
+            "f8a8",
+            "h2h4",
+            "b7b5",   // double push with no pawn to capture en passant
+    };
+    for (String move : moves) {
+      game.makeMove(new ChessMove(move));
+      assertMatchesScratchKey(game);
+    }
+    Assertions.assertEquals("r5k1/5p2/8/1p6/7P/3p4/8/5RK1 w - b6 0 5", game.toFen());
+  }
+
+
+  @Test
+  void castlingRightsTest() throws InvalidMoveException {
+    ChessGame game = ChessGame.fromFen("r3k2r/8/8/8/8/8/8/R3K2R w KQkq - 0 1");
+
+    // A rook leaving home and a rook captured at home both drop one right
+    game.makeMove(new ChessMove("h1h7"));
+    assertMatchesScratchKey(game);
+    game.makeMove(new ChessMove("a8a1"));
+    assertMatchesScratchKey(game);
+    Assertions.assertEquals("4k2r/7R/8/8/8/8/8/r3K3 w k - 0 2", game.toFen());
+
+    // Same placement, different rights
+    long withRights = ChessGame.fromFen("r3k2r/8/8/8/8/8/8/R3K2R w KQkq - 0 1").getZobristKey();
+    long withoutRights = ChessGame.fromFen("r3k2r/8/8/8/8/8/8/R3K2R w - - 0 1").getZobristKey();
+    Assertions.assertNotEquals(withRights, withoutRights);
+  }
+
+
+  @Test
+  void promotionTest() throws InvalidMoveException {
+    ChessGame game = ChessGame.fromFen("1n2k3/P7/8/8/8/8/8/4K3 w - - 0 1");
+    game.makeMove(new ChessMove("a7b8=N"));
+    assertMatchesScratchKey(game);
+    game.makeMove(new ChessMove("e8d8"));
+    game.makeMove(new ChessMove("b8c6"));
+    assertMatchesScratchKey(game);
+  }
+
+
+  @Test
+  void transpositionTest() throws InvalidMoveException {
+    ChessGame first = new ChessGame();
+    for (String move : new String[]{"g1f3", "g8f6", "b1c3", "b8c6"}) {
+      first.makeMove(new ChessMove(move));
+    }
+    ChessGame second = new ChessGame();
+    for (String move : new String[]{"b1c3", "b8c6", "g1f3", "g8f6"}) {
+      second.makeMove(new ChessMove(move));
+    }
+    Assertions.assertEquals(first.getZobristKey(), second.getZobristKey());
+    assertMatchesScratchKey(first);
+  }
+
+
+  /**
+   * fromFen places every piece on an empty board and sets the rights and en passant square
+   * directly, so its key is built from scratch rather than updated move by move.
+   */
+  private static void assertMatchesScratchKey(ChessGame game) {
+    ChessGame scratch = ChessGame.fromFen(game.toFen());
+    Assertions.assertEquals(scratch.getZobristKey(), game.getZobristKey(), game.toFen());
+    Assertions.assertEquals(scratch.getBoard().getZobristKey(), game.getBoard().getZobristKey(), game.toFen());
+  }
+}